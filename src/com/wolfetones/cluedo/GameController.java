@@ -25,12 +25,12 @@
 package com.wolfetones.cluedo;
 
 import com.wolfetones.cluedo.board.BoardModel;
-import com.wolfetones.cluedo.board.PathFinder;
 import com.wolfetones.cluedo.board.tiles.*;
 import com.wolfetones.cluedo.card.*;
 import com.wolfetones.cluedo.config.Config;
 import com.wolfetones.cluedo.game.Game;
 import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.board.Path;
 import com.wolfetones.cluedo.game.Player;
 import com.wolfetones.cluedo.game.PlayerList;
 import com.wolfetones.cluedo.game.Suggestion;
@@ -50,15 +50,23 @@ import java.awt.event.MouseListener;
 import java.io.PrintStream;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+/**
+ * Interactive Swing front end for a single local game.
+ *
+ * Turns are played on the thread that constructs the controller, which blocks on the command queue while waiting
+ * for input and on animations while they play. This is intended for one game per process only; hosting games
+ * without blocking a thread per game is done with {@link com.wolfetones.cluedo.game.GameSession} and
+ * {@link com.wolfetones.cluedo.game.GameHost}, which this controller does not use.
+ */
 public class GameController {
     private static final boolean DEMO_MODE = Boolean.parseBoolean(System.getProperty("debug"));
     private static final boolean ALLOW_SKIPPING_ANIMATIONS = Boolean.parseBoolean(System.getProperty("debug"));
 
-    private static Random sRandom = new Random();
-
     /**
      * Setting to enable cheat command that gives the solution.
      */
@@ -160,6 +168,9 @@ public class GameController {
      */
     private Game mGame = new Game();
 
+    /** Source of randomness for speech bubbles */
+    private Random mRandom = new Random();
+
     private PlayerList mPlayers = new PlayerList();
 
     /**
@@ -197,7 +208,12 @@ public class GameController {
      * Path Finding
      */
     private boolean mPathFindingEnabled = false;
-    private List<TokenOccupiableTile> mPreviousPath;
+    private Path mPreviousPath;
+
+    /**
+     * Components of the board tiles, in format {@code [y][x]}.
+     */
+    private TileComponent[][] mTileComponents = new TileComponent[Config.Board.HEIGHT][Config.Board.WIDTH];
     private MouseListener mTilePathFindingListener = new MouseAdapter() {
         @Override
         public void mouseEntered(MouseEvent e) {
@@ -206,9 +222,9 @@ public class GameController {
     };
 
     /**
-     * Scanner for reading stdin
+     * Commands entered by the user, waiting to be read
      */
-    private Scanner mInputScanner;
+    private BlockingQueue<String> mCommandQueue = new LinkedBlockingQueue<>();
 
     public static void main(String[] args) {
         System.out.println("Welcome to " + Config.TITLE + " by");
@@ -240,9 +256,6 @@ public class GameController {
         // Card dealing animation
         dealCards();
 
-        // Input scanner for parsing stdin
-        mInputScanner = new Scanner(System.in);
-
         // Keep performing new turns until the game is over
         while (true) {
             if (!performTurn()) {
@@ -317,7 +330,13 @@ public class GameController {
         String[] command;
         String line;
         while (true) {
-            line = mInputScanner.nextLine();
+            try {
+                line = mCommandQueue.take();
+            } catch (InterruptedException e) {
+                // Preserve the interrupt for the caller, and treat it as end of text
+                Thread.currentThread().interrupt();
+                line = "\3";
+            }
 
             // Interrupt/end of text
             if (line.equals("\3")) {
@@ -434,7 +453,7 @@ public class GameController {
             bubbleLines.add("I wouldn't want to get caught alone with the murderer in the corridors..");
         }
 
-        mPlayersPanel.showBubble(player, bubbleLines.get(sRandom.nextInt(bubbleLines.size())));
+        mPlayersPanel.showBubble(player, bubbleLines.get(mRandom.nextInt(bubbleLines.size())));
 
         List<String> commands = new ArrayList<>();
         while (true) {
@@ -465,6 +484,11 @@ public class GameController {
             mActionPanel.hideAllExceptDone();
 
             if (command == null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Stop playing if the turn thread itself was interrupted
+                    return false;
+                }
+
                 // Ignore and continue
                 System.err.println("Unexpected interrupt");
             } else if (command.equals(COMMAND_DONE)) {
@@ -545,20 +569,19 @@ public class GameController {
     }
 
     private void performRoll(Player player) {
+        // Roll dice using the game's random number generator
         int[] dice = new int[Game.NUM_DICE];
+        int remainingMoves = mGame.rollDice(dice);
 
         // Show cursor panel to allow force finishing dice roll
         setClickAction(mBoardDicePanel::forceFinish, mBoardTilePanel, Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 
-        // Roll dice
+        // Animate dice landing on the rolled values
         mBoardDicePanel.rollDice(dice, false);
 
         // Hide cursor panel
         setClickAction(null, null, null);
 
-        // Game will read dice values from dice array if they are not 0
-        int remainingMoves = mGame.rollDice(dice);
-
         mPlayersPanel.showBubble(player, "I rolled " + remainingMoves);
         System.out.println("Rolled " + Util.implode(Arrays.stream(dice).boxed().collect(Collectors.toList()), "+") + " = " + remainingMoves);
 
@@ -573,7 +596,7 @@ public class GameController {
             corridorTiles.sort(Comparator.comparingInt(Tile::getX));
             String[] validCommands = new String[corridorTiles.size()];
             for (int i = 0; i < corridorTiles.size(); i++) {
-                corridorTiles.get(i).getButton().setDoorHint(i + 1);
+                getTileComponent(corridorTiles.get(i)).setDoorHint(i + 1);
                 validCommands[i] = Integer.toString(i + 1);
             }
             String entranceCommand = readCommand("Choose room exit (or use board tiles)", validCommands)[0];
@@ -584,7 +607,7 @@ public class GameController {
                 mGame.moveTo(corridorTiles.get(entranceCorridor).getDoorTile());
             }
 
-            corridorTiles.forEach(t -> t.getButton().setDoorHint(0));
+            corridorTiles.forEach(t -> getTileComponent(t).setDoorHint(0));
         }
 
         // Make sure we haven't moved directly to another room using path finding/UI
@@ -612,6 +635,10 @@ public class GameController {
 
                 String direction = readCommand("Choose direction (remaining: " + remainingMoves + ")", validCommands)[0];
                 if (direction == null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+
                     continue;
                 }
 
@@ -728,7 +755,7 @@ public class GameController {
                 }
 
                 // Add only 1 of the generic lines
-                if (sRandom.nextBoolean()) {
+                if (mRandom.nextBoolean()) {
                     bubbleLines.add("It's time for some questioning in the " + roomName + "!");
                 } else {
                     bubbleLines.add("The " + roomName + " could give me some important clues, let's ask some questions");
@@ -736,7 +763,7 @@ public class GameController {
             }
         }
 
-        mPlayersPanel.showBubble(player, bubbleLines.get(sRandom.nextInt(bubbleLines.size())));
+        mPlayersPanel.showBubble(player, bubbleLines.get(mRandom.nextInt(bubbleLines.size())));
 
         setPathFindingEnabled(false);
     }
@@ -872,7 +899,7 @@ public class GameController {
             mPlayersPanel.setPlayerEliminated(player, true);
         }
 
-        mPlayersPanel.showBubble(player, bubbleLines.get(sRandom.nextInt(bubbleLines.size())));
+        mPlayersPanel.showBubble(player, bubbleLines.get(mRandom.nextInt(bubbleLines.size())));
 
         // Update history panel
         mHistoryPanel.update();
@@ -921,6 +948,16 @@ public class GameController {
         }
     }
 
+    /**
+     * Returns the component displaying a tile of the board.
+     *
+     * @param tile the tile
+     * @return the component displaying {@code tile}
+     */
+    private TileComponent getTileComponent(Tile tile) {
+        return mTileComponents[tile.getY()][tile.getX()];
+    }
+
     private void setPathFindingEnabled(boolean enabled) {
         mPathFindingEnabled = enabled;
 
@@ -937,7 +974,7 @@ public class GameController {
         // Reset backgrounds of tiles in previous path
         if (mPreviousPath != null) {
             for (Tile tile : mPreviousPath) {
-                tile.getButton().setPathFindingColors(false, false, false);
+                getTileComponent(tile).setPathFindingColors(false, false, false);
             }
 
             mPreviousPath = null;
@@ -966,7 +1003,7 @@ public class GameController {
         }
 
         // Try to find a path to the target location
-        List<TokenOccupiableTile> path = PathFinder.findShortestPathAdvanced(currentLocation, targetLocation, Integer.MAX_VALUE);
+        Path path = mGame.getReachabilityMap().getPath(targetLocation);
         if (path == null) {
             resetPathFindingTemporaryState();
             return;
@@ -976,7 +1013,7 @@ public class GameController {
         if (mPreviousPath != null) {
             for (TokenOccupiableTile t : mPreviousPath) {
                 if (!path.contains(t)) {
-                    t.getButton().setPathFindingColors(false, false, false);
+                    getTileComponent(t).setPathFindingColors(false, false, false);
                 }
             }
         }
@@ -985,13 +1022,13 @@ public class GameController {
         // Update backgrounds of tiles in new path
         for (int i = 0; i < path.size(); i++) {
             // Colour valid tiles in path green, invalid tiles in red
-            TileComponent button = path.get(i).getButton();
+            TileComponent button = getTileComponent(path.get(i));
             boolean active = i == (path.size() - 1);
             button.setPathFindingColors(true, i <= mGame.getTurnRemainingMoves(), active);
         }
 
         // Tile click action
-        boolean canMove = (path.size() - 1) <= mGame.getTurnRemainingMoves();
+        boolean canMove = path.getMoves() <= mGame.getTurnRemainingMoves();
         if (canMove) {
             setClickAction(() -> {
                 if (mGame.moveTo(targetLocation) == 0) {
@@ -1197,7 +1234,7 @@ public class GameController {
         terminal.add(mInputPanel);
 
         System.setOut(new PrintStream(mOutputPanel.getOutputStream()));
-        System.setIn(mInputPanel.getInputStream());
+        mInputPanel.setCommandListener(mCommandQueue::add);
 
         mMainFrame.add(terminal, BorderLayout.LINE_END);
 
@@ -1260,7 +1297,11 @@ public class GameController {
 
             mBoardLayeredPane.add(label, BOARD_LAYER_ROOM_NAMES);
 
-            r.setLabel(label);
+            r.setLabelUpdateListener((y, delay) -> Animator.getInstance().animate(label)
+                    .translate(label.getX(), (int) (y * label.getHeight()))
+                    .setDuration(TokenComponent.ANIMATION_DURATION)
+                    .setDelay(delay * TokenComponent.ANIMATION_DURATION)
+                    .start());
         }
 
         // Add suspect tokens
@@ -1278,7 +1319,7 @@ public class GameController {
             for (int x = 0; x < Config.Board.WIDTH; x++) {
                 Tile tile = mGame.getBoard().getTile(x, y);
                 TileComponent component = new TileComponent(tile);
-                tile.setButton(component);
+                mTileComponents[y][x] = component;
                 component.setSize(mTileSize, mTileSize);
 
                 // Tile borders
@@ -1444,6 +1485,9 @@ public class GameController {
             Animator.getInstance().interruptAllAnimations(mBoardDicePanel);
         }, mBoardTilePanel, Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
 
+        // Player order is derived from the game's seed, without affecting the game's own random number generator
+        SplittableRandom random = new SplittableRandom(mGame.getSeed()).split();
+
         // Store list of players that are in the current round (highest rollers or all players initially)
         List<Player> currentRoundPlayers = new ArrayList<>(mPlayers);
         while (currentRoundPlayers.size() > 1) {
@@ -1459,7 +1503,11 @@ public class GameController {
                 mPlayersPanel.setActivePlayer(mPlayers.indexOf(player));
 
                 // Roll dice
-                int roll = mBoardDicePanel.rollDice(null, true);
+                int[] dice = new int[Game.NUM_DICE];
+                for (int i = 0; i < dice.length; i++) {
+                    dice[i] = random.nextInt(6) + 1;
+                }
+                int roll = mBoardDicePanel.rollDice(dice, true);
                 System.out.println(player.getName() + " rolled " + roll);
 
                 if (roll > highestRoll) {
@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+import com.wolfetones.cluedo.board.tiles.*;
+import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.config.Config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitboard view of the board.
+ *
+ * Every tile is represented by the bit at its tile index ({@code y * WIDTH + x}) in a mask of {@link #WORDS} longs.
+ * Static masks for corridor, room, door-adjacent and start tiles are built once, while the occupied mask is kept
+ * in sync with {@link TokenOccupiableTile#setToken} by {@link BoardModel}.
+ *
+ * Reachable sets are computed with whole-board shift-and-mask flood fills instead of walking the tile graph.
+ */
+public class BitBoard {
+    /** Total number of tiles on the board */
+    private static final int TILE_COUNT = Config.Board.WIDTH * Config.Board.HEIGHT;
+
+    /** Number of longs in a mask */
+    public static final int WORDS = (TILE_COUNT + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * Masks used to prevent horizontal shifts from wrapping around to the next row.
+     */
+    private static final long[] NOT_LEFT_COLUMN = new long[WORDS];
+    private static final long[] NOT_RIGHT_COLUMN = new long[WORDS];
+
+    /** Mask of all bits that represent tiles */
+    private static final long[] BOARD = new long[WORDS];
+
+    static {
+        for (int i = 0; i < TILE_COUNT; i++) {
+            set(BOARD, i);
+            if (i % Config.Board.WIDTH != 0) set(NOT_LEFT_COLUMN, i);
+            if (i % Config.Board.WIDTH != Config.Board.WIDTH - 1) set(NOT_RIGHT_COLUMN, i);
+        }
+    }
+
+    /**
+     * Static masks.
+     */
+    private final long[] mCorridor = new long[WORDS];
+    private final long[] mRoom = new long[WORDS];
+    private final long[] mDoorAdjacent = new long[WORDS];
+    private final long[] mStart = new long[WORDS];
+
+    /**
+     * Corridor tiles outside the doors of each room.
+     */
+    private final Room[] mRooms;
+    private final long[][] mRoomDoors;
+
+    /** Tiles currently occupied by a token */
+    private final long[] mOccupied = new long[WORDS];
+
+    /**
+     * Constructs the bitboard for the tiles of the specified board.
+     *
+     * @param board the board
+     * @param rooms all rooms on the board, including the guess room
+     */
+    BitBoard(BoardModel board, List<Room> rooms) {
+        for (int y = 0; y < Config.Board.HEIGHT; y++) {
+            for (int x = 0; x < Config.Board.WIDTH; x++) {
+                Tile tile = board.getTile(x, y);
+                int index = PathFinder.tileIndex(tile);
+
+                if (tile instanceof CorridorTile) {
+                    set(mCorridor, index);
+                    if (((CorridorTile) tile).isOccupied()) set(mOccupied, index);
+                } else if (tile instanceof RoomTile) {
+                    set(mRoom, index);
+                }
+
+                if (tile instanceof StartTile) {
+                    set(mStart, index);
+                }
+            }
+        }
+
+        mRooms = rooms.toArray(new Room[0]);
+        mRoomDoors = new long[mRooms.length][WORDS];
+        for (int i = 0; i < mRooms.length; i++) {
+            for (RoomTile entrance : mRooms[i].getEntranceCorridors()) {
+                set(mRoomDoors[i], PathFinder.tileIndex(entrance.getDoorTile()));
+                set(mDoorAdjacent, PathFinder.tileIndex(entrance.getDoorTile()));
+            }
+        }
+    }
+
+    /**
+     * Updates the occupied mask for a tile.
+     *
+     * @param tile index of the tile
+     * @param occupied whether the tile is occupied
+     */
+    void setOccupied(int tile, boolean occupied) {
+        if (occupied) {
+            set(mOccupied, tile);
+        } else {
+            clear(mOccupied, tile);
+        }
+    }
+
+    /**
+     * Returns the mask of corridor tiles, including start tiles.
+     *
+     * @return a copy of the corridor mask
+     */
+    public long[] getCorridorMask() {
+        return mCorridor.clone();
+    }
+
+    /**
+     * Returns the mask of room tiles.
+     *
+     * @return a copy of the room mask
+     */
+    public long[] getRoomMask() {
+        return mRoom.clone();
+    }
+
+    /**
+     * Returns the mask of corridor tiles outside the door of any room.
+     *
+     * @return a copy of the door-adjacent mask
+     */
+    public long[] getDoorAdjacentMask() {
+        return mDoorAdjacent.clone();
+    }
+
+    /**
+     * Returns the mask of start tiles.
+     *
+     * @return a copy of the start mask
+     */
+    public long[] getStartMask() {
+        return mStart.clone();
+    }
+
+    /**
+     * Returns the mask of tiles currently occupied by a token.
+     *
+     * @return a copy of the occupied mask, which does not reflect later moves
+     */
+    public long[] getOccupiedMask() {
+        return mOccupied.clone();
+    }
+
+    /**
+     * Returns the mask of corridor tiles outside the doors of a room.
+     *
+     * @param room the room
+     * @return the mask of corridor tiles from which {@code room} can be entered
+     */
+    public long[] getRoomDoorMask(Room room) {
+        return mRoomDoors[roomIndex(room)].clone();
+    }
+
+    /**
+     * Returns the mask of corridor tiles that can currently be moved through.
+     *
+     * @return the mask of free corridor tiles
+     */
+    public long[] getFreeCorridorMask() {
+        long[] free = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            free[i] = mCorridor[i] & ~mOccupied[i];
+        }
+        return free;
+    }
+
+    /**
+     * Returns a hash of the current occupancy of the board.
+     *
+     * @return a hash of the occupied mask
+     */
+    public long getOccupancyHash() {
+        long hash = 0;
+        for (long word : mOccupied) {
+            hash = hash * 0x9E3779B97F4A7C15L + word;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the corridor tiles reachable from a location within every number of moves up to {@code maxMoves}.
+     *
+     * Element {@code n} of the result holds the tiles that can be reached in at most {@code n} moves. When starting
+     * in a room, the room's free door tiles are reachable after one move. Occupied tiles other than the start tile
+     * cannot be moved through.
+     *
+     * @param start the location from which to move
+     * @param maxMoves the maximum number of moves
+     * @return masks of reachable corridor tiles, indexed by number of moves
+     */
+    public long[][] reachableWithin(Location start, int maxMoves) {
+        long[] passable = getFreeCorridorMask();
+        long[][] reachable = new long[maxMoves + 1][WORDS];
+
+        if (start.isRoom()) {
+            if (maxMoves == 0) return reachable;
+
+            long[] doors = mRoomDoors[roomIndex(start.asRoom())];
+            for (int i = 0; i < WORDS; i++) {
+                reachable[1][i] = doors[i] & passable[i];
+            }
+            for (int n = 2; n <= maxMoves; n++) {
+                expand(reachable[n - 1], passable, reachable[n]);
+            }
+        } else {
+            set(reachable[0], PathFinder.tileIndex(start.asTile()));
+            for (int n = 1; n <= maxMoves; n++) {
+                expand(reachable[n - 1], passable, reachable[n]);
+            }
+        }
+
+        return reachable;
+    }
+
+    /**
+     * Returns {@code true} if a room can be entered from any of the tiles in a mask with one more move.
+     *
+     * @param reachable mask of reachable tiles
+     * @param room the room
+     * @return {@code true} if any tile in {@code reachable} is outside a door of {@code room}
+     */
+    public boolean canEnterRoom(long[] reachable, Room room) {
+        return intersects(reachable, mRoomDoors[roomIndex(room)]);
+    }
+
+    private int roomIndex(Room room) {
+        for (int i = 0; i < mRooms.length; i++) {
+            if (mRooms[i] == room) return i;
+        }
+
+        throw new IllegalArgumentException("Room is not on this board");
+    }
+
+    /**
+     * Floods a mask by one step: {@code dst = src | (neighbours(src) & passable)}.
+     *
+     * @param src the tiles to flood from
+     * @param passable the tiles that can be moved into
+     * @param dst the result, may not be {@code src}
+     */
+    public static void expand(long[] src, long[] passable, long[] dst) {
+        step(src, passable, dst);
+        for (int i = 0; i < WORDS; i++) {
+            dst[i] |= src[i];
+        }
+    }
+
+    /**
+     * Moves every tile of a mask by exactly one step: {@code dst = neighbours(src) & passable}.
+     *
+     * Repeating this {@code n} times gives the tiles at which a walk of exactly {@code n} steps can end.
+     *
+     * @param src the tiles to step from
+     * @param passable the tiles that can be moved into
+     * @param dst the result, may not be {@code src}
+     */
+    public static void step(long[] src, long[] passable, long[] dst) {
+        Arrays.fill(dst, 0);
+
+        // Down and up by a full row
+        orShiftedUp(src, Config.Board.WIDTH, BOARD, dst);
+        orShiftedDown(src, Config.Board.WIDTH, BOARD, dst);
+
+        // Right and left by one column, dropping tiles that wrapped around to the other end of a row
+        orShiftedUp(src, 1, NOT_LEFT_COLUMN, dst);
+        orShiftedDown(src, 1, NOT_RIGHT_COLUMN, dst);
+
+        for (int i = 0; i < WORDS; i++) {
+            dst[i] &= passable[i] & BOARD[i];
+        }
+    }
+
+    /**
+     * Computes the tiles at which walks of exactly {@code steps} moves from the tiles of a mask can end.
+     *
+     * @param start the tiles to walk from
+     * @param passable the tiles that can be moved into
+     * @param steps the number of steps
+     * @return the tiles reachable in exactly {@code steps} moves
+     */
+    public static long[] reachableExactly(long[] start, long[] passable, int steps) {
+        long[] current = start.clone();
+        long[] next = new long[WORDS];
+        for (int n = 0; n < steps; n++) {
+            step(current, passable, next);
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return current;
+    }
+
+    /**
+     * ORs a mask shifted towards higher tile indices into the destination, keeping only the tiles in {@code mask}.
+     */
+    private static void orShiftedUp(long[] src, int bits, long[] mask, long[] dst) {
+        int words = bits / Long.SIZE;
+        int shift = bits % Long.SIZE;
+        for (int i = WORDS - 1; i >= words; i--) {
+            long value = src[i - words] << shift;
+            if (shift != 0 && i - words - 1 >= 0) {
+                value |= src[i - words - 1] >>> (Long.SIZE - shift);
+            }
+            dst[i] |= value & mask[i];
+        }
+    }
+
+    /**
+     * ORs a mask shifted towards lower tile indices into the destination, keeping only the tiles in {@code mask}.
+     */
+    private static void orShiftedDown(long[] src, int bits, long[] mask, long[] dst) {
+        int words = bits / Long.SIZE;
+        int shift = bits % Long.SIZE;
+        for (int i = 0; i < WORDS - words; i++) {
+            long value = src[i + words] >>> shift;
+            if (shift != 0 && i + words + 1 < WORDS) {
+                value |= src[i + words + 1] << (Long.SIZE - shift);
+            }
+            dst[i] |= value & mask[i];
+        }
+    }
+
+    /**
+     * Returns whether a tile is set in a mask.
+     *
+     * @param mask the mask
+     * @param tile index of the tile
+     * @return {@code true} if the tile's bit is set
+     */
+    public static boolean get(long[] mask, int tile) {
+        return (mask[tile >>> 6] & (1L << tile)) != 0;
+    }
+
+    /**
+     * Sets a tile in a mask.
+     *
+     * @param mask the mask to modify
+     * @param tile index of the tile
+     */
+    public static void set(long[] mask, int tile) {
+        mask[tile >>> 6] |= 1L << tile;
+    }
+
+    /**
+     * Clears a tile in a mask.
+     *
+     * @param mask the mask to modify
+     * @param tile index of the tile
+     */
+    public static void clear(long[] mask, int tile) {
+        mask[tile >>> 6] &= ~(1L << tile);
+    }
+
+    /**
+     * Returns whether two masks have any tile in common.
+     *
+     * @param a the first mask
+     * @param b the second mask
+     * @return {@code true} if any tile is set in both masks
+     */
+    public static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((a[i] & b[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of tiles set in a mask.
+     *
+     * @param mask the mask
+     * @return the number of set bits
+     */
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -30,10 +30,12 @@ import com.wolfetones.cluedo.card.Room;
 import com.wolfetones.cluedo.card.Suspect;
 import com.wolfetones.cluedo.card.Weapon;
 import com.wolfetones.cluedo.config.Config;
+import com.wolfetones.cluedo.util.RandomUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -53,10 +55,42 @@ public class BoardModel {
      */
     private Tile[][] mTiles = new Tile[Config.Board.HEIGHT][Config.Board.WIDTH];
 
+    /**
+     * Movement graph of the locations on this board.
+     */
+    private LocationGraph mLocationGraph;
+
+    /**
+     * Path finder operating on the movement graph of this board.
+     */
+    private PathFinder mPathFinder;
+
+    /**
+     * Distances between all locations on an empty board.
+     */
+    private DistanceTable mDistanceTable;
+
+    /**
+     * Bitboard view of the tiles.
+     */
+    private BitBoard mBitBoard;
+
+    /**
+     * Occupancy version, increased every time a token enters or leaves a tile.
+     */
+    private long mOccupancyVersion = 0;
+
+    /**
+     * Shortest paths found since they were last invalidated by occupancy changes.
+     */
+    private PathCache mPathCache;
+
     /**
      * Constructs a new {@code BoardModel} and initializes all cards and tiles.
+     *
+     * @param random source of randomness for the placement of weapons
      */
-    public BoardModel() {
+    public BoardModel(SplittableRandom random) {
         mCards = new ArrayList<>();
         mSuspects = new ArrayList<>();
         mWeapons = new ArrayList<>();
@@ -167,16 +201,32 @@ public class BoardModel {
             }
         }
 
+        // Initialize path finding
+        mLocationGraph = new LocationGraph(this, mRooms);
+        mPathFinder = new PathFinder(mLocationGraph);
+        mDistanceTable = new DistanceTable(mLocationGraph);
+        mBitBoard = new BitBoard(this, mRooms);
+        mPathCache = new PathCache(mPathFinder, mDistanceTable);
+
+        // Keep occupancy views in sync with tiles
+        for (int y = 0; y < Config.Board.HEIGHT; y++) {
+            for (int x = 0; x < Config.Board.WIDTH; x++) {
+                if (mTiles[y][x] instanceof TokenOccupiableTile) {
+                    ((TokenOccupiableTile) mTiles[y][x]).setOccupancyListener(this::onOccupancyChanged);
+                }
+            }
+        }
+
         // Place weapons in rooms
         List<Integer> weaponRooms = IntStream.range(1, mRooms.size())
                 .boxed()
                 .collect(Collectors.toList());
-        Collections.shuffle(weaponRooms);
+        RandomUtils.shuffle(weaponRooms, random);
         for (int i = 0; i < mWeapons.size(); i++) {
             mWeapons.get(i).setLocation(mRooms.get(weaponRooms.get(i)), null);
         }
 
-        // Remove guess room from rooms list
+        // Remove guess room from rooms list, it is not a card and is never assigned an id
         mGuessRoom = mRooms.remove(0);
 
         // Add all suspects, weapons and rooms to cards list
@@ -184,6 +234,11 @@ public class BoardModel {
         mCards.addAll(mWeapons);
         mCards.addAll(mRooms);
 
+        // Assign card ids
+        for (int i = 0; i < mCards.size(); i++) {
+            mCards.get(i).setId(i);
+        }
+
         // Make all lists unmodifiable
         mCards = Collections.unmodifiableList(mCards);
         mSuspects = Collections.unmodifiableList(mSuspects);
@@ -202,6 +257,117 @@ public class BoardModel {
         return mTiles[y][x];
     }
 
+    /**
+     * Returns the movement graph of the locations on this board.
+     *
+     * @return the movement graph of the locations on this board.
+     */
+    public LocationGraph getLocationGraph() {
+        return mLocationGraph;
+    }
+
+    /**
+     * Returns the path finder operating on the movement graph of this board.
+     *
+     * @return the path finder operating on the movement graph of this board.
+     */
+    public PathFinder getPathFinder() {
+        return mPathFinder;
+    }
+
+    /**
+     * Returns the bitboard view of the tiles.
+     *
+     * @return the bitboard view of the tiles.
+     */
+    public BitBoard getBitBoard() {
+        return mBitBoard;
+    }
+
+    /**
+     * Updates occupancy views when a token enters or leaves a tile.
+     *
+     * @param tile the tile whose occupancy has changed
+     */
+    private void onOccupancyChanged(TokenOccupiableTile tile) {
+        mOccupancyVersion++;
+
+        mBitBoard.setOccupied(PathFinder.tileIndex(tile), tile.isOccupied());
+
+        // Only corridor tiles block movement
+        if (tile instanceof CorridorTile) {
+            mPathCache.onOccupancyChanged(PathFinder.tileIndex(tile), mDistanceTable.getLocationId((CorridorTile) tile), tile.isOccupied());
+        }
+    }
+
+    /**
+     * Returns the occupancy version of the board.
+     *
+     * The version increases monotonically every time a token enters or leaves a tile, so results computed from
+     * the occupancy of the board remain valid for as long as the version is unchanged.
+     *
+     * @return the occupancy version of the board.
+     */
+    public long getOccupancyVersion() {
+        return mOccupancyVersion;
+    }
+
+    /**
+     * Finds the shortest path available between two locations, reusing previously found paths that
+     * have not been affected by changes in occupancy since.
+     *
+     * @param start from location.
+     * @param target to location.
+     * @param maxMoves the maximum number of moves allowed to reach the target.
+     * @return the shortest path, or {@code null} if there is none.
+     * @see PathFinder#findShortestPathAdvanced(Location, Location, int)
+     */
+    public Path findShortestPath(Location start, Location target, int maxMoves) {
+        return mPathCache.findShortestPath(start, target, maxMoves);
+    }
+
+    /**
+     * Returns the table of distances between all locations on an empty board.
+     *
+     * @return the table of distances between all locations on an empty board.
+     */
+    public DistanceTable getDistanceTable() {
+        return mDistanceTable;
+    }
+
+    /**
+     * Returns the number of moves between two locations if no tiles were occupied.
+     *
+     * @param a location A
+     * @param b location B
+     * @return the unobstructed distance between the two locations, or {@code -1} if there is no route.
+     */
+    public int getUnobstructedDistance(Location a, Location b) {
+        return mDistanceTable.getUnobstructedDistance(a, b);
+    }
+
+    /**
+     * Returns the number of moves between two locations, taking into account occupied corridor tiles.
+     *
+     * The precomputed unobstructed distance is returned when its route is free, otherwise a path search is performed.
+     *
+     * @param a location A
+     * @param b location B
+     * @return the distance between the two locations, or {@code -1} if there is no route.
+     */
+    public int getDistance(Location a, Location b) {
+        int aId = mDistanceTable.getLocationId(a);
+        int bId = mDistanceTable.getLocationId(b);
+
+        int distance = mDistanceTable.getUnobstructedDistance(aId, bId);
+        if (distance <= 0 || mDistanceTable.isRouteFree(aId, bId)) {
+            return distance;
+        }
+
+        Path path = findShortestPath(a, b, Integer.MAX_VALUE);
+        return path != null ? path.getMoves() : -1;
+    }
+
     /**
      * Returns an unmodifiable list containing all cards.
      *
@@ -251,6 +417,15 @@ public class BoardModel {
         return mRooms;
     }
 
+    /**
+     * Returns the guess room, in which final accusations are made.
+     *
+     * @return the guess room
+     */
+    public Room getGuessRoom() {
+        return mGuessRoom;
+    }
+
     /**
      * Returns a modifiable list of all {@code Room}s, including the guess room.
      *
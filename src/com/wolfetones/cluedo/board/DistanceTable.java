@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed distances between every pair of locations on an empty board.
+ *
+ * Locations are identified by their {@link LocationGraph} node, corridor tiles first followed by rooms, and
+ * distances are stored as unsigned bytes in a single matrix indexed by node. Rooms can only be entered or left
+ * through their doors, and cannot be passed through.
+ */
+public class DistanceTable {
+    /** Stored distance of locations that cannot be reached from each other */
+    private static final int UNREACHABLE = 0xFF;
+
+    private final LocationGraph mGraph;
+
+    /**
+     * Distances between locations, {@code [a * count + b]}.
+     */
+    private final byte[] mDistances;
+
+    /**
+     * Constructs the distance table for the specified movement graph.
+     *
+     * @param graph the movement graph of the board
+     */
+    DistanceTable(LocationGraph graph) {
+        mGraph = graph;
+
+        // Breadth-first search from every location
+        int count = graph.getNodeCount();
+        mDistances = new byte[count * count];
+        Arrays.fill(mDistances, (byte) UNREACHABLE);
+
+        int[] queue = new int[count];
+        for (int source = 0; source < count; source++) {
+            int row = source * count;
+            int head = 0;
+            int tail = 0;
+
+            mDistances[row + source] = 0;
+            queue[tail++] = source;
+
+            while (head < tail) {
+                int current = queue[head++];
+
+                // Rooms cannot be passed through
+                if (graph.isRoom(current) && current != source) continue;
+
+                int distance = (mDistances[row + current] & 0xFF) + 1;
+                if (distance >= UNREACHABLE) {
+                    throw new IllegalStateException("Board distances do not fit in distance table");
+                }
+
+                for (int edge = graph.getEdgeStart(current), end = graph.getEdgeStart(current + 1); edge < end; edge++) {
+                    // Passages take a whole turn and are not moves
+                    if (graph.getEdgeType(edge) == LocationGraph.EDGE_PASSAGE) continue;
+
+                    int neighbour = graph.getEdgeTarget(edge);
+                    if ((mDistances[row + neighbour] & 0xFF) != UNREACHABLE) continue;
+
+                    mDistances[row + neighbour] = (byte) distance;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of locations.
+     *
+     * @return the total number of locations.
+     */
+    public int getLocationCount() {
+        return mGraph.getNodeCount();
+    }
+
+    /**
+     * Returns the dense id of a location.
+     *
+     * @param location the location
+     * @return the id of the location
+     */
+    public int getLocationId(Location location) {
+        return mGraph.getNode(location);
+    }
+
+    /**
+     * Returns the location with the specified id.
+     *
+     * @param id the id of the location
+     * @return the location with the specified id
+     */
+    public Location getLocation(int id) {
+        return mGraph.getLocation(id);
+    }
+
+    /**
+     * Returns the number of moves between two locations if no tiles were occupied.
+     *
+     * @param a location A
+     * @param b location B
+     * @return the unobstructed distance between the two locations, or {@code -1} if there is no route.
+     */
+    public int getUnobstructedDistance(Location a, Location b) {
+        return getUnobstructedDistance(getLocationId(a), getLocationId(b));
+    }
+
+    /**
+     * Returns the number of moves between two locations if no tiles were occupied.
+     *
+     * @param a id of location A
+     * @param b id of location B
+     * @return the unobstructed distance between the two locations, or {@code -1} if there is no route.
+     */
+    public int getUnobstructedDistance(int a, int b) {
+        int distance = mDistances[a * mGraph.getNodeCount() + b] & 0xFF;
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    /**
+     * Returns {@code true} if a shortest unobstructed route between two locations is free of tokens.
+     *
+     * The route is recovered from the table by repeatedly stepping to a neighbour one move closer to the target.
+     * The start location itself is not checked as it is usually occupied by the token that is moving.
+     *
+     * @param a id of location A
+     * @param b id of location B
+     * @return {@code true} if the cached route from {@code a} to {@code b} is free.
+     */
+    boolean isRouteFree(int a, int b) {
+        int row = b * mGraph.getNodeCount();
+        int current = a;
+        while (current != b) {
+            int distance = mDistances[row + current] & 0xFF;
+
+            int next = -1;
+            for (int edge = mGraph.getEdgeStart(current), end = mGraph.getEdgeStart(current + 1); edge < end; edge++) {
+                int neighbour = mGraph.getEdgeTarget(edge);
+
+                // Rooms other than the target cannot be passed through
+                if (mGraph.getEdgeType(edge) == LocationGraph.EDGE_PASSAGE || (mGraph.isRoom(neighbour) && neighbour != b)) continue;
+
+                if ((mDistances[row + neighbour] & 0xFF) == distance - 1) {
+                    next = neighbour;
+                    break;
+                }
+            }
+
+            current = next;
+            if (mGraph.isOccupied(current)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+import com.wolfetones.cluedo.board.tiles.CorridorTile;
+import com.wolfetones.cluedo.board.tiles.RoomTile;
+import com.wolfetones.cluedo.board.tiles.Tile;
+import com.wolfetones.cluedo.board.tiles.TokenOccupiableTile;
+import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.config.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable movement graph of the board.
+ *
+ * Every location is a node: corridor tiles first, in row order, followed by rooms. Rooms are single nodes
+ * connected to the corridor tiles outside their doors and to the rooms their secret passages lead to.
+ * Adjacency is stored in compressed sparse row form, the edges of node {@code n} being
+ * {@code getEdgeStart(n)} inclusive to {@code getEdgeStart(n + 1)} exclusive.
+ *
+ * Each edge also records the tiles it leads from and to, so that paths through the graph can be turned back into
+ * paths of tiles. For edges leaving or entering a room these are the room's entrance tiles.
+ */
+public final class LocationGraph {
+    /** Total number of tiles on the board */
+    static final int TILE_COUNT = Config.Board.WIDTH * Config.Board.HEIGHT;
+
+    /**
+     * Types of edges.
+     */
+    public static final byte EDGE_CORRIDOR = 0;
+    public static final byte EDGE_DOOR = 1;
+    public static final byte EDGE_PASSAGE = 2;
+
+    /**
+     * Directions of edges.
+     */
+    public static final byte DIRECTION_NONE = 0;
+    public static final byte DIRECTION_HORIZONTAL = 1;
+    public static final byte DIRECTION_VERTICAL = 2;
+
+    /**
+     * Locations, indexed by node.
+     */
+    private final Location[] mLocations;
+    private final int mRoomsStart;
+
+    /**
+     * Board tiles, indexed by tile index ({@code null} for tiles that cannot be occupied).
+     */
+    private final TokenOccupiableTile[] mTiles = new TokenOccupiableTile[TILE_COUNT];
+
+    /**
+     * Tiles of corridor nodes, indexed by node ({@code null} for rooms).
+     */
+    private final TokenOccupiableTile[] mNodeTiles;
+
+    /**
+     * Nodes of tiles, indexed by tile index ({@code -1} for tiles that are not part of a location).
+     */
+    private final int[] mTileNodes = new int[TILE_COUNT];
+
+    /**
+     * Compressed sparse row adjacency.
+     */
+    private final int[] mEdgeStarts;
+    private final int[] mEdgeTargets;
+    private final byte[] mEdgeTypes;
+    private final byte[] mEdgeDirections;
+    private final int[] mEdgeFromTiles;
+    private final int[] mEdgeToTiles;
+
+    /**
+     * Constructs the movement graph for the tiles of the specified board.
+     *
+     * @param board the board
+     * @param rooms all rooms on the board, including the guess room
+     */
+    LocationGraph(BoardModel board, List<Room> rooms) {
+        List<Location> locations = new ArrayList<>();
+        Arrays.fill(mTileNodes, -1);
+
+        // Corridor tiles
+        for (int y = 0; y < Config.Board.HEIGHT; y++) {
+            for (int x = 0; x < Config.Board.WIDTH; x++) {
+                Tile tile = board.getTile(x, y);
+                if (tile instanceof TokenOccupiableTile) {
+                    mTiles[PathFinder.tileIndex(tile)] = (TokenOccupiableTile) tile;
+                }
+                if (tile instanceof CorridorTile) {
+                    mTileNodes[PathFinder.tileIndex(tile)] = locations.size();
+                    locations.add((CorridorTile) tile);
+                }
+            }
+        }
+
+        // Rooms
+        mRoomsStart = locations.size();
+        for (Room room : rooms) {
+            for (RoomTile tile : room.getTiles()) {
+                mTileNodes[PathFinder.tileIndex(tile)] = locations.size();
+            }
+            locations.add(room);
+        }
+
+        mLocations = locations.toArray(new Location[0]);
+        mNodeTiles = new TokenOccupiableTile[mLocations.length];
+        for (int node = 0; node < mRoomsStart; node++) {
+            mNodeTiles[node] = mLocations[node].asTile();
+        }
+
+        // Collect edges in node order
+        List<int[]> edges = new ArrayList<>();
+        mEdgeStarts = new int[mLocations.length + 1];
+        for (int node = 0; node < mLocations.length; node++) {
+            mEdgeStarts[node] = edges.size();
+
+            if (node < mRoomsStart) {
+                // Neighbouring corridor tiles and rooms entered through doors
+                TokenOccupiableTile tile = mNodeTiles[node];
+                for (TokenOccupiableTile neighbour : tile.getTokenTraversableNeighbours()) {
+                    byte type = neighbour instanceof RoomTile ? EDGE_DOOR : EDGE_CORRIDOR;
+                    edges.add(edge(tile, neighbour, type));
+                }
+            } else {
+                // Corridor tiles outside the doors of the room
+                Room room = mLocations[node].asRoom();
+                for (RoomTile entrance : room.getEntranceCorridors()) {
+                    edges.add(edge(entrance, entrance.getDoorTile(), EDGE_DOOR));
+                }
+
+                if (room.hasPassage()) {
+                    edges.add(edge(room.getPassageTile(), room.getPassageRoom().getPassageTile(), EDGE_PASSAGE));
+                }
+            }
+        }
+        mEdgeStarts[mLocations.length] = edges.size();
+
+        mEdgeTargets = new int[edges.size()];
+        mEdgeTypes = new byte[edges.size()];
+        mEdgeDirections = new byte[edges.size()];
+        mEdgeFromTiles = new int[edges.size()];
+        mEdgeToTiles = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            int[] edge = edges.get(i);
+            mEdgeFromTiles[i] = edge[0];
+            mEdgeToTiles[i] = edge[1];
+            mEdgeTypes[i] = (byte) edge[2];
+            mEdgeTargets[i] = mTileNodes[edge[1]];
+
+            if (edge[2] == EDGE_PASSAGE) {
+                mEdgeDirections[i] = DIRECTION_NONE;
+            } else if (edge[0] % Config.Board.WIDTH == edge[1] % Config.Board.WIDTH) {
+                mEdgeDirections[i] = DIRECTION_VERTICAL;
+            } else {
+                mEdgeDirections[i] = DIRECTION_HORIZONTAL;
+            }
+        }
+    }
+
+    private static int[] edge(Tile from, Tile to, byte type) {
+        return new int[] { PathFinder.tileIndex(from), PathFinder.tileIndex(to), type };
+    }
+
+    /**
+     * Returns the total number of nodes.
+     *
+     * @return the total number of nodes.
+     */
+    public int getNodeCount() {
+        return mLocations.length;
+    }
+
+    /**
+     * Returns the node of a location.
+     *
+     * @param location the location
+     * @return the node of the location
+     */
+    public int getNode(Location location) {
+        if (location.isRoom()) {
+            return mTileNodes[PathFinder.tileIndex(location.asRoom().getTiles().get(0))];
+        } else {
+            return mTileNodes[PathFinder.tileIndex(location.asTile())];
+        }
+    }
+
+    /**
+     * Returns the node of the location a tile is part of.
+     *
+     * @param tile index of the tile
+     * @return the node of the tile, or {@code -1} if the tile is not part of a location
+     */
+    public int getTileNode(int tile) {
+        return mTileNodes[tile];
+    }
+
+    /**
+     * Returns the location of a node.
+     *
+     * @param node the node
+     * @return the location of the node
+     */
+    public Location getLocation(int node) {
+        return mLocations[node];
+    }
+
+    /**
+     * Returns {@code true} if a node is a room.
+     *
+     * @param node the node
+     * @return {@code true} if {@code node} is a room.
+     */
+    public boolean isRoom(int node) {
+        return node >= mRoomsStart;
+    }
+
+    /**
+     * Returns the first room node, all nodes before which are corridor tiles.
+     *
+     * @return the first room node.
+     */
+    public int getRoomsStart() {
+        return mRoomsStart;
+    }
+
+    /**
+     * Returns {@code true} if a node is a corridor tile occupied by a token.
+     *
+     * @param node the node
+     * @return {@code true} if {@code node} is an occupied corridor tile.
+     */
+    public boolean isOccupied(int node) {
+        return node < mRoomsStart && mNodeTiles[node].isOccupied();
+    }
+
+    /**
+     * Returns the first edge of a node, or the end of the edges of the previous node.
+     *
+     * @param node the node, up to and including {@link #getNodeCount()}
+     * @return the index of the first edge of {@code node}
+     */
+    public int getEdgeStart(int node) {
+        return mEdgeStarts[node];
+    }
+
+    /**
+     * Returns the node an edge leads to.
+     *
+     * @param edge the edge
+     * @return the target node of the edge
+     */
+    public int getEdgeTarget(int edge) {
+        return mEdgeTargets[edge];
+    }
+
+    /**
+     * Returns the type of an edge, {@link #EDGE_CORRIDOR}, {@link #EDGE_DOOR} or {@link #EDGE_PASSAGE}.
+     *
+     * @param edge the edge
+     * @return the type of the edge
+     */
+    public byte getEdgeType(int edge) {
+        return mEdgeTypes[edge];
+    }
+
+    /**
+     * Returns the direction of movement along an edge, {@link #DIRECTION_NONE} for passages.
+     *
+     * @param edge the edge
+     * @return the direction of the edge
+     */
+    public byte getEdgeDirection(int edge) {
+        return mEdgeDirections[edge];
+    }
+
+    /**
+     * Returns the index of the tile an edge leads from.
+     *
+     * @param edge the edge
+     * @return the index of the tile the edge leads from
+     */
+    public int getEdgeFromTile(int edge) {
+        return mEdgeFromTiles[edge];
+    }
+
+    /**
+     * Returns the index of the tile an edge leads to.
+     *
+     * @param edge the edge
+     * @return the index of the tile the edge leads to
+     */
+    public int getEdgeToTile(int edge) {
+        return mEdgeToTiles[edge];
+    }
+
+    /**
+     * Returns the tile with the specified index.
+     *
+     * @param tile index of the tile
+     * @return the tile, or {@code null} if it cannot be occupied
+     */
+    public TokenOccupiableTile getTile(int tile) {
+        return mTiles[tile];
+    }
+
+    /**
+     * Creates a path through tiles of the board.
+     *
+     * @param tiles indices of the tiles of the path, in order
+     * @return a path through {@code tiles}
+     */
+    Path createPath(int[] tiles) {
+        return new Path(mTiles, tiles);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+import com.wolfetones.cluedo.board.tiles.TokenOccupiableTile;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable path of tiles across the board.
+ *
+ * Paths are stored as the dense indices of their tiles ({@code y * WIDTH + x}), which are resolved against the
+ * tiles of the board only when accessed. Views of a path share its indices, so dropping the first or last tile
+ * does not copy the path.
+ */
+public final class Path extends AbstractList<TokenOccupiableTile> implements RandomAccess {
+    /**
+     * Board tiles, indexed by tile index.
+     */
+    private final TokenOccupiableTile[] mTiles;
+
+    /**
+     * Tile indices of the path, from {@link #mOffset} inclusive to {@code mOffset + mLength} exclusive.
+     */
+    private final int[] mIndices;
+    private final int mOffset;
+    private final int mLength;
+
+    Path(TokenOccupiableTile[] tiles, int[] indices) {
+        this(tiles, indices, 0, indices.length);
+    }
+
+    private Path(TokenOccupiableTile[] tiles, int[] indices, int offset, int length) {
+        mTiles = tiles;
+        mIndices = indices;
+        mOffset = offset;
+        mLength = length;
+    }
+
+    @Override
+    public TokenOccupiableTile get(int index) {
+        return mTiles[getTileIndex(index)];
+    }
+
+    @Override
+    public int size() {
+        return mLength;
+    }
+
+    /**
+     * Returns the dense index of a tile in the path.
+     *
+     * @param index position of the tile in the path
+     * @return the index of the tile, {@code y * WIDTH + x}
+     */
+    public int getTileIndex(int index) {
+        if (index < 0 || index >= mLength) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mLength);
+        }
+
+        return mIndices[mOffset + index];
+    }
+
+    /**
+     * Returns the number of moves needed to follow the path.
+     *
+     * @return the number of moves between the first and last tiles of the path.
+     */
+    public int getMoves() {
+        return Math.max(mLength - 1, 0);
+    }
+
+    /**
+     * Returns a view of the path without its first tile.
+     *
+     * @return a view of the path without its first tile.
+     */
+    public Path dropFirst() {
+        return new Path(mTiles, mIndices, mOffset + 1, Math.max(mLength - 1, 0));
+    }
+
+    /**
+     * Returns a view of the path without its last tile.
+     *
+     * @return a view of the path without its last tile.
+     */
+    public Path dropLast() {
+        return new Path(mTiles, mIndices, mOffset, Math.max(mLength - 1, 0));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+import java.util.*;
+
+/**
+ * Cache of shortest paths keyed by start location, target location and move budget.
+ *
+ * When a tile's occupancy changes only the entries that the change can affect are invalidated: entries whose
+ * route crosses a tile that has become occupied, and entries that a newly freed tile could make shorter or
+ * possible according to the unobstructed {@link DistanceTable}.
+ */
+class PathCache {
+    /** Maximum number of cached paths before the cache is cleared */
+    private static final int MAX_ENTRIES = 4096;
+
+    private final PathFinder mPathFinder;
+    private final DistanceTable mDistanceTable;
+
+    private final Map<Long, Entry> mEntries = new HashMap<>();
+
+    PathCache(PathFinder pathFinder, DistanceTable distanceTable) {
+        mPathFinder = pathFinder;
+        mDistanceTable = distanceTable;
+    }
+
+    /**
+     * Returns the shortest path between two locations, searching only if it is not cached.
+     *
+     * @param start from location.
+     * @param target to location.
+     * @param maxMoves the maximum number of moves allowed to reach the target.
+     * @return the shortest path, or {@code null} if there is none.
+     */
+    Path findShortestPath(Location start, Location target, int maxMoves) {
+        int startId = mDistanceTable.getLocationId(start);
+        int targetId = mDistanceTable.getLocationId(target);
+        long key = ((long) startId << 48) | ((long) targetId << 32) | (maxMoves & 0xFFFFFFFFL);
+
+        Entry entry = mEntries.get(key);
+        if (entry == null) {
+            if (mEntries.size() >= MAX_ENTRIES) {
+                mEntries.clear();
+            }
+
+            entry = new Entry(startId, targetId, maxMoves, mPathFinder.findShortestPathAdvanced(start, target, maxMoves));
+            mEntries.put(key, entry);
+        }
+
+        return entry.path;
+    }
+
+    /**
+     * Invalidates the entries affected by a change in occupancy of a corridor tile.
+     *
+     * @param tile index of the tile
+     * @param location id of the tile's location
+     * @param occupied whether the tile is now occupied
+     */
+    void onOccupancyChanged(int tile, int location, boolean occupied) {
+        if (occupied) {
+            // Routes through the tile are now blocked
+            mEntries.values().removeIf(entry -> entry.path != null && BitBoard.get(entry.route, tile));
+        } else {
+            // Routes through the tile may now be shorter, or possible at all
+            mEntries.values().removeIf(entry -> {
+                int toTile = mDistanceTable.getUnobstructedDistance(entry.start, location);
+                int fromTile = mDistanceTable.getUnobstructedDistance(location, entry.target);
+                if (toTile < 0 || fromTile < 0) return false;
+
+                int bound = entry.path != null ? entry.path.getMoves() : entry.maxMoves;
+                return (long) toTile + fromTile <= bound;
+            });
+        }
+    }
+
+    /**
+     * Removes all cached paths.
+     */
+    void clear() {
+        mEntries.clear();
+    }
+
+    private static class Entry {
+        private final int start;
+        private final int target;
+        private final int maxMoves;
+        private final Path path;
+
+        /** Tiles of the path that must stay free, excluding the start tile */
+        private final long[] route = new long[BitBoard.WORDS];
+
+        private Entry(int s, int t, int m, Path p) {
+            start = s;
+            target = t;
+            maxMoves = m;
+            path = p;
+
+            if (p != null) {
+                for (int i = 1; i < p.size(); i++) {
+                    BitBoard.set(route, p.getTileIndex(i));
+                }
+            }
+        }
+    }
+}
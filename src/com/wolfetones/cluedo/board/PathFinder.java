@@ -24,208 +24,373 @@
 
 package com.wolfetones.cluedo.board;
 
-import com.wolfetones.cluedo.board.tiles.CorridorTile;
 import com.wolfetones.cluedo.board.tiles.RoomTile;
 import com.wolfetones.cluedo.board.tiles.Tile;
 import com.wolfetones.cluedo.board.tiles.TokenOccupiableTile;
-import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.config.Config;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
- * Useful path-finding functions
+ * Useful path-finding functions.
+ *
+ * Searches run on the nodes and edges of the board's {@link LocationGraph} using primitive arrays, which are
+ * allocated once per board and reused for every search. As the buffers are shared, a {@code PathFinder} must only
+ * be used from one thread at a time.
+ *
+ * Every move costs the same, so instead of a priority queue searches use a bucket queue with one bucket per path
+ * length. Search states are pairs of node and last movement direction, and within a bucket each state keeps the
+ * route with the fewest changes of direction. Paths are therefore ordered exactly by length and then by number of
+ * turns, in time linear in the size of the graph, and ties are always broken in the same order.
  */
 public class PathFinder {
+    /** Number of movement directions a search state can have */
+    private static final int DIRECTIONS = 3;
+
+    /** Value of {@link #mBestTarget} when no target has been reached */
+    private static final int NO_TARGET = -1;
+
+    private final LocationGraph mGraph;
+
+    /**
+     * Search buffers indexed by state ({@code node * DIRECTIONS + direction}), valid for a state only when its
+     * visited stamp matches the current search.
+     */
+    private final int[] mVisited;
+    private final int[] mCost;
+    private final int[] mTurns;
+    private final int[] mParent;
+    private final int[] mEdge;
+    private int mSearch = 0;
+
+    /**
+     * Bucket queue of visited states. States are appended in order of path length, so each bucket is a contiguous
+     * run of the queue and the next bucket is complete by the time the current one has been processed.
+     */
+    private final int[] mQueue;
+    private int mQueueSize = 0;
+
+    /** Target node and the indices of its tiles for the current search */
+    private int mTarget;
+    private final int[] mTargetTiles = new int[LocationGraph.TILE_COUNT];
+    private int mTargetTileCount;
+
+    /** Straightest state reached at the target in the latest bucket */
+    private int mBestTarget;
+
+    /**
+     * Constructs a new {@code PathFinder} for the specified movement graph.
+     *
+     * @param graph the graph in which paths will be searched for
+     */
+    PathFinder(LocationGraph graph) {
+        mGraph = graph;
+
+        int states = graph.getNodeCount() * DIRECTIONS;
+        mVisited = new int[states];
+        mCost = new int[states];
+        mTurns = new int[states];
+        mParent = new int[states];
+        mEdge = new int[states];
+        mQueue = new int[states];
+    }
+
+    /**
+     * Returns the dense index of a tile.
+     *
+     * @param tile the tile
+     * @return the index of the tile, {@code y * WIDTH + x}
+     */
+    static int tileIndex(Tile tile) {
+        return tile.getY() * Config.Board.WIDTH + tile.getX();
+    }
+
     /**
      * Returns the distance between two tiles along axes at right angles.
      *
-     * @param a tile A
-     * @param b tile B
+     * @param a index of tile A
+     * @param b index of tile B
      * @return the Manhattan distance between the two tiles
      */
-    private static int tileManhattanDistance(Tile a, Tile b) {
-        return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+    private static int tileManhattanDistance(int a, int b) {
+        return Math.abs(a % Config.Board.WIDTH - b % Config.Board.WIDTH) + Math.abs(a / Config.Board.WIDTH - b / Config.Board.WIDTH);
     }
 
     /**
      * Finds the shortest path available between two locations, taking into account room entrance corridors
      *
+     * When either location is a room, all of its entrance corridors are searched from or for at once.
+     *
      * @param start from location.
      * @param target to location.
      * @param maxMoves the maximum number of moves allowed to reach the target.
-     * @return a list of tiles containing the shortest path from {@code start} to {@code target}.
-     */
-    public static List<TokenOccupiableTile> findShortestPathAdvanced(Location start, Location target, int maxMoves) {
-        List<TokenOccupiableTile> path;
-        if (start.isRoom() && target.isRoom()) { // Two
-            // Loop through each possible combination of entrance corridors
-            // to check whether the player can move between the two rooms
-            List<TokenOccupiableTile> min = null;
-            for (RoomTile fromRoomEntranceCorridor : start.asRoom().getEntranceCorridors()) {
-                for (RoomTile toRoomEntranceCorridor : target.asRoom().getEntranceCorridors()) {
-                    if ((path = PathFinder.findShortestPath(fromRoomEntranceCorridor,
-                            toRoomEntranceCorridor,
-                            maxMoves)) != null) {
-                        if (min == null || path.size() < min.size()) {
-                            min = path;
-                        }
-                    }
-                }
-            }
-            return min;
-        } else if (!start.isRoom() && !target.isRoom()) { // No rooms
-            return PathFinder.findShortestPath(start.asTile(), target.asTile(), maxMoves);
-        } else { // One room
-            // Find which of from/to locations is the room
-            Room loopRoom = start.isRoom() ? start.asRoom() : target.asRoom();
-
-            // Loop through each entrance corridor
-            List<TokenOccupiableTile> min = null;
-            for (RoomTile loopRoomEntranceCorridor : loopRoom.getEntranceCorridors()) {
-                TokenOccupiableTile fromTile = start.isRoom() ? loopRoomEntranceCorridor : start.asTile();
-                TokenOccupiableTile toTile = target.isRoom() ? loopRoomEntranceCorridor : target.asTile();
-                if ((path = PathFinder.findShortestPath(fromTile, toTile, maxMoves)) != null) {
-                    if (min == null || path.size() < min.size()) {
-                        min = path;
-                    }
-                }
-            }
-            return min;
-        }
+     * @return the shortest path from {@code start} to {@code target}.
+     */
+    public Path findShortestPathAdvanced(Location start, Location target, int maxMoves) {
+        return findShortestPath(mGraph.getNode(start), mGraph.getNode(target), maxMoves);
     }
 
     /**
-     * Finds the shortest path available between two tiles.
+     * Finds the shortest path available between the locations of two tiles.
+     *
+     * Of all the shortest paths, the one with the fewest changes of direction is chosen.
      *
      * @param start The starting tile.
      * @param target The target tile.
      * @param maxMoves The maximum number of moves allowed to reach the target.
-     * @return A list of tiles containing the shortest path from {@code start} to {@code target}.
+     * @return The shortest path from {@code start} to {@code target}.
      */
-    public static List<TokenOccupiableTile> findShortestPath(TokenOccupiableTile start, TokenOccupiableTile target, int maxMoves) {
-        // If tiles are too distant by manhattan route a path is not possible
-        if (tileManhattanDistance(start, target) > maxMoves) {
+    public Path findShortestPath(TokenOccupiableTile start, TokenOccupiableTile target, int maxMoves) {
+        return findShortestPath(mGraph.getTileNode(tileIndex(start)), mGraph.getTileNode(tileIndex(target)), maxMoves);
+    }
+
+    /**
+     * Finds the shortest path from one node to another.
+     *
+     * The search stops once the bucket in which the target is first reached is complete. Of all the shortest
+     * paths, the one with the fewest changes of direction is chosen.
+     *
+     * @param source the node from which to search.
+     * @param target the node to search for.
+     * @param maxMoves The maximum number of moves allowed to reach the target.
+     * @return The shortest path, or {@code null} if the target cannot be reached.
+     */
+    private Path findShortestPath(int source, int target, int maxMoves) {
+        if (source < 0 || target < 0) {
             return null;
         }
 
-        // Priority queue to hold further explorable tiles
-        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingDouble(node -> (double) expectedMovesForNode(node, target) + (double) node.turns * 0.01));
+        // The path to the start location is only the tile from which it would be left
+        if (source == target) {
+            return mGraph.createPath(new int[] { locationTile(source) });
+        }
+
+        int search = startSearch();
+
+        // Tiles through which the target is entered, for estimating remaining moves
+        mTarget = target;
+        if (mGraph.isRoom(target)) {
+            mTargetTileCount = 0;
+            for (RoomTile entrance : mGraph.getLocation(target).asRoom().getEntranceCorridors()) {
+                mTargetTiles[mTargetTileCount++] = tileIndex(entrance);
+            }
+        } else {
+            mTargetTiles[0] = locationTile(target);
+            mTargetTileCount = 1;
+        }
+
+        seed(source, search);
+
+        int head = 0;
+        while (head < mQueueSize) {
+            int state = mQueue[head];
+
+            // Once the bucket containing the target is complete it cannot be reached by a shorter or straighter route
+            if (mBestTarget != NO_TARGET && mCost[state] >= mCost[mBestTarget]) break;
+
+            head++;
+
+            // Entering a room ends movement, only the start room can be left through its entrances
+            int node = state / DIRECTIONS;
+            if (mGraph.isRoom(node) && mCost[state] > 0) continue;
+
+            int cost = mCost[state] + 1;
+            for (int edge = mGraph.getEdgeStart(node), end = mGraph.getEdgeStart(node + 1); edge < end; edge++) {
+                // If path would exceed max moves, don't check neighbour
+                if (cost + targetManhattanDistance(mGraph.getEdgeToTile(edge)) > maxMoves) continue;
+
+                relax(state, edge, search);
+            }
+        }
+
+        return mBestTarget != NO_TARGET ? buildPath(mGraph, mBestTarget, mCost[mBestTarget], mParent, mEdge) : null;
+    }
+
+    /**
+     * Returns the index of the tile of a corridor node, or the first entrance of a room node.
+     */
+    private int locationTile(int node) {
+        Location location = mGraph.getLocation(node);
+        if (location.isRoom()) {
+            return tileIndex(location.asRoom().getEntranceCorridors().get(0));
+        } else {
+            return tileIndex(location.asTile());
+        }
+    }
+
+    /**
+     * Returns the Manhattan distance from a tile to the closest of the target tiles.
+     *
+     * @param tile index of the tile
+     * @return the Manhattan distance to the closest target tile
+     */
+    private int targetManhattanDistance(int tile) {
+        int min = tileManhattanDistance(tile, mTargetTiles[0]);
+        for (int i = 1; i < mTargetTileCount; i++) {
+            min = Math.min(min, tileManhattanDistance(tile, mTargetTiles[i]));
+        }
+        return min;
+    }
+
+    /**
+     * Finds the shortest paths from a location to every location reachable from it.
+     *
+     * Performs a single pass over the graph, preferring the route with the fewest changes of direction among
+     * routes of equal length. Occupied corridor tiles cannot be traversed.
+     *
+     * @param start the location from which to search.
+     * @return a map of the distances and paths to all locations reachable from {@code start}.
+     */
+    public ReachabilityMap findReachableLocations(Location start) {
+        int search = startSearch();
+        mTarget = NO_TARGET;
 
-        // Map of tiles to nodes holding their shortest paths
-        Map<Tile, Node> nodes = new HashMap<>();
+        seed(mGraph.getNode(start), search);
 
-        // If start tile is the target tile return immediately
-        if (start == target) {
-            return Collections.singletonList(start);
+        for (int head = 0; head < mQueueSize; head++) {
+            int state = mQueue[head];
+
+            // Entering a room ends movement, only the start room can be left through its entrances
+            int node = state / DIRECTIONS;
+            if (mGraph.isRoom(node) && mCost[state] > 0) continue;
+
+            for (int edge = mGraph.getEdgeStart(node), end = mGraph.getEdgeStart(node + 1); edge < end; edge++) {
+                relax(state, edge, search);
+            }
         }
 
-        // Add the first
-        queue.add(new Node(start, new ArrayList<>(), false, 0));
-
-        while (queue.size() > 0) {
-            Node currentNode = queue.poll();
-
-            // If path has already exceeded max moves, don't check neighbours
-            if (expectedMovesForNode(currentNode, target) > maxMoves) continue;
-
-            // Append current tile to the path
-            List<TokenOccupiableTile> path = new ArrayList<>(currentNode.path);
-            path.add(currentNode.tile);
-
-            // Loop through neighbours
-            for (TokenOccupiableTile neighbouringTile : currentNode.tile.getTokenTraversableNeighbours()) {
-                // Only empty corridor tiles can be traversed
-                if (neighbouringTile instanceof CorridorTile &&
-                        neighbouringTile.isOccupied()) continue;
-
-                // Don't loop through existing tiles
-                if (currentNode.path.contains(neighbouringTile)) continue;
-
-                // Check if moving to this node has caused a change of direction
-                boolean vertical = currentNode.tile.getX() == neighbouringTile.getX();
-                boolean turned = currentNode.vertical != vertical && currentNode.path.size() > 1;
-
-                Node neighbouringNode;
-                if (nodes.containsKey(neighbouringTile)) {
-                    // Existing node
-                    neighbouringNode = nodes.get(neighbouringTile);
-
-                    // If tile already has node and path is shorter ignore long route
-                    if (neighbouringNode.path.size() <= path.size() && neighbouringNode.turns <= currentNode.turns) {
-                        continue;
-                    }
-
-                    // Old path was longer, replace with new path
-                    neighbouringNode.path = path;
-                    neighbouringNode.vertical = vertical;
-                    neighbouringNode.turns = currentNode.turns + (turned ? 1 : 0);
-                } else {
-                    // New node
-                    neighbouringNode = new Node(neighbouringTile, path, vertical, currentNode.turns + (turned ? 1 : 0));
-
-                    nodes.put(neighbouringTile, neighbouringNode);
-                }
-
-                // Attempting to find target
-                if (neighbouringTile != target) {
-                    queue.add(neighbouringNode);
-                } else {
-                    // Max moves is now the shortest path length
-                    maxMoves = path.size();
-
-                    // If target has been found no need to check neighbours further
-                    break;
-                }
+        // Copy results out of the shared buffers, keeping the best state of each node
+        int nodes = mGraph.getNodeCount();
+        int[] distances = new int[nodes];
+        int[] turns = new int[nodes];
+        int[] states = new int[nodes];
+        int[] parents = new int[nodes * DIRECTIONS];
+        int[] edges = new int[nodes * DIRECTIONS];
+        Arrays.fill(distances, ReachabilityMap.UNREACHABLE);
+        for (int i = 0; i < mQueueSize; i++) {
+            int state = mQueue[i];
+            int node = state / DIRECTIONS;
+            parents[state] = mParent[state];
+            edges[state] = mEdge[state];
+
+            if (distances[node] == ReachabilityMap.UNREACHABLE || mCost[state] < distances[node] ||
+                    (mCost[state] == distances[node] && mTurns[state] < turns[node])) {
+                distances[node] = mCost[state];
+                turns[node] = mTurns[state];
+                states[node] = state;
             }
         }
 
-        // If path to target was found return
-        if (nodes.containsKey(target)) {
-            List<TokenOccupiableTile> path = nodes.get(target).path;
-            path.add(target);
-            return path;
+        return new ReachabilityMap(start, mGraph, distances, turns, states, parents, edges);
+    }
+
+    /**
+     * Builds the path of tiles to a search state by following parent states back to the start.
+     *
+     * The path starts with the tile from which the first edge leads, which for rooms is the entrance left through.
+     *
+     * @param graph the graph that was searched
+     * @param target the last state in the path
+     * @param moves number of moves to the last state
+     * @param parents parent of each state
+     * @param edges edge by which each state was reached
+     * @return the path to {@code target}
+     */
+    static Path buildPath(LocationGraph graph, int target, int moves, int[] parents, int[] edges) {
+        int[] path = new int[moves + 1];
+        int state = target;
+        for (int i = path.length - 1; i > 0; i--) {
+            path[i] = graph.getEdgeToTile(edges[state]);
+            if (i == 1) {
+                path[0] = graph.getEdgeFromTile(edges[state]);
+            }
+            state = parents[state];
         }
 
-        return null;
+        return graph.createPath(path);
     }
 
     /**
-     * Calculates the expected total moves required to reach the target tile from a node.
+     * Creates a path through the specified tiles of the board.
      *
-     * Returns the sum of the current path to the tile along and
-     * the Manhattan distance to the target tile, assuming the
-     * optimal route with Manhattan distance is available.
+     * @param tiles the tiles of the path, in order
+     * @return a path through {@code tiles}
+     */
+    public Path createPath(TokenOccupiableTile... tiles) {
+        int[] path = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            path[i] = tileIndex(tiles[i]);
+        }
+
+        return mGraph.createPath(path);
+    }
+
+    /**
+     * Invalidates the results of the previous search and empties the queue.
      *
-     * @param node The node from which to calculate
-     * @param target The target tile
-     * @return The expected total moves required to reach the {@code target} from the {@code node}
+     * @return the stamp of the new search
+     */
+    private int startSearch() {
+        mQueueSize = 0;
+        mBestTarget = NO_TARGET;
+
+        return ++mSearch;
+    }
+
+    /**
+     * Adds the source node to the first bucket of the current search.
      */
-    private static int expectedMovesForNode(Node node, Tile target) {
-        return node.path.size() + tileManhattanDistance(node.tile, target);
+    private void seed(int node, int search) {
+        int state = node * DIRECTIONS + LocationGraph.DIRECTION_NONE;
+
+        visit(state, search, 0, 0, -1, -1);
+        mQueue[mQueueSize++] = state;
     }
 
     /**
-     * A node in the search for a path between two tiles
-     */
-    private static class Node {
-        private TokenOccupiableTile tile;
-        private List<TokenOccupiableTile> path;
-        private boolean vertical;
-        private int turns;
-
-        /**
-         * Constructs a new node
-         *
-         * @param t The tile
-         * @param p The path taken to the tile from the starting tile
-         * @param v Whether the last movement was vertical
-         * @param d The total number of changes of direction
-         */
-        private Node(TokenOccupiableTile t, List<TokenOccupiableTile> p, boolean v, int d) {
-            tile = t;
-            path = p;
-            vertical = v;
-            turns = d;
+     * Follows an edge from a state of the current bucket.
+     *
+     * The resulting state is added to the next bucket, or updated in place if it is already there and the new route
+     * has fewer changes of direction.
+     */
+    private void relax(int state, int edge, int search) {
+        // Secret passages take a whole turn and are never part of a path
+        if (mGraph.getEdgeType(edge) == LocationGraph.EDGE_PASSAGE) return;
+
+        // Only empty corridor tiles can be traversed
+        int neighbour = mGraph.getEdgeTarget(edge);
+        if (mGraph.isOccupied(neighbour)) return;
+
+        // Check if moving along this edge has caused a change of direction
+        int direction = mGraph.getEdgeDirection(edge);
+        int previous = state % DIRECTIONS;
+        int turns = mTurns[state] + (previous != LocationGraph.DIRECTION_NONE && previous != direction ? 1 : 0);
+        int cost = mCost[state] + 1;
+
+        int next = neighbour * DIRECTIONS + direction;
+        if (mVisited[next] == search) {
+            // States in the next bucket can still be improved on by a straighter route
+            if (mCost[next] != cost || mTurns[next] <= turns) return;
+
+            visit(next, search, cost, turns, state, edge);
+        } else {
+            visit(next, search, cost, turns, state, edge);
+            mQueue[mQueueSize++] = next;
         }
+
+        if (neighbour == mTarget && (mBestTarget == NO_TARGET || turns < mTurns[mBestTarget])) {
+            mBestTarget = next;
+        }
+    }
+
+    /**
+     * Records the route by which a state has been reached in the current search.
+     */
+    private void visit(int state, int search, int cost, int turns, int parent, int edge) {
+        mVisited[state] = search;
+        mCost[state] = cost;
+        mTurns[state] = turns;
+        mParent[state] = parent;
+        mEdge[state] = edge;
     }
 }
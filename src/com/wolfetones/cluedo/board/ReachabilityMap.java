@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.board;
+
+/**
+ * Shortest path tree from a single {@link Location} to every location reachable from it.
+ *
+ * Built once by {@link PathFinder#findReachableLocations(Location)}, after which distances and paths are
+ * looked up without searching again. The map reflects the occupancy of the board at the time it was built.
+ */
+public class ReachabilityMap {
+    /** Distance of locations that cannot be reached */
+    public static final int UNREACHABLE = -1;
+
+    private final Location mStart;
+
+    private final LocationGraph mGraph;
+
+    /**
+     * Search results, indexed by node.
+     */
+    private final int[] mDistances;
+    private final int[] mTurns;
+    private final int[] mStates;
+
+    /**
+     * Parent and incoming edge of each search state.
+     */
+    private final int[] mParents;
+    private final int[] mEdges;
+
+    ReachabilityMap(Location start, LocationGraph graph, int[] distances, int[] turns, int[] states, int[] parents, int[] edges) {
+        mStart = start;
+        mGraph = graph;
+        mDistances = distances;
+        mTurns = turns;
+        mStates = states;
+        mParents = parents;
+        mEdges = edges;
+    }
+
+    /**
+     * Returns the location from which the map was built.
+     *
+     * @return the location from which the map was built.
+     */
+    public Location getStart() {
+        return mStart;
+    }
+
+    /**
+     * Returns the number of moves required to reach a location.
+     *
+     * @param location the target location.
+     * @return the number of moves required to reach {@code location}, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(Location location) {
+        if (location == mStart) {
+            return 0;
+        }
+
+        return mDistances[mGraph.getNode(location)];
+    }
+
+    /**
+     * Returns the number of moves required to reach a location graph node.
+     *
+     * @param node the target node.
+     * @return the number of moves required to reach {@code node}, or {@link #UNREACHABLE}.
+     */
+    public int getDistance(int node) {
+        return mGraph.getLocation(node) == mStart ? 0 : mDistances[node];
+    }
+
+    /**
+     * Returns the number of changes of direction along the shortest path to a location.
+     *
+     * @param location the target location.
+     * @return the number of turns on the way to {@code location}, or {@link #UNREACHABLE}.
+     */
+    public int getTurns(Location location) {
+        if (location == mStart) {
+            return 0;
+        }
+
+        int node = mGraph.getNode(location);
+        return mDistances[node] == UNREACHABLE ? UNREACHABLE : mTurns[node];
+    }
+
+    /**
+     * Returns {@code true} if a location can be reached within the specified number of moves.
+     *
+     * @param location the target location.
+     * @param maxMoves the maximum number of moves allowed to reach the target.
+     * @return {@code true} if {@code location} can be reached within {@code maxMoves} moves.
+     */
+    public boolean isReachable(Location location, int maxMoves) {
+        int distance = getDistance(location);
+        return distance != UNREACHABLE && distance <= maxMoves;
+    }
+
+    /**
+     * Returns the shortest path to a location.
+     *
+     * The path has the same form as the paths returned by {@link PathFinder#findShortestPathAdvanced}, starting
+     * and ending with room entrance tiles when the start or target locations are rooms.
+     *
+     * @param location the target location.
+     * @return the shortest path to {@code location}, or {@code null} if it is unreachable.
+     */
+    public Path getPath(Location location) {
+        if (location == mStart) {
+            return null;
+        }
+
+        int node = mGraph.getNode(location);
+        if (mDistances[node] == UNREACHABLE) {
+            return null;
+        }
+
+        return PathFinder.buildPath(mGraph, mStates[node], mDistances[node], mParents, mEdges);
+    }
+}
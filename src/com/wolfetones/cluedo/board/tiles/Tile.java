@@ -24,8 +24,6 @@
 
 package com.wolfetones.cluedo.board.tiles;
 
-import com.wolfetones.cluedo.ui.component.TileComponent;
-
 /**
  * Base tile class, representing a tile on the board.
  */
@@ -44,8 +42,6 @@ public abstract class Tile {
     protected Tile mRight;
     protected Tile mDown;
 
-    private TileComponent mButton;
-
     /**
      * Base tile constructor.
      *
@@ -125,14 +121,6 @@ public abstract class Tile {
         mDown = down;
     }
 
-    public TileComponent getButton() {
-        return mButton;
-    }
-
-    public void setButton(TileComponent button) {
-        mButton = button;
-    }
-
     @Override
     public String toString() {
         return getClass().getSimpleName() + "[" + mX + ", " + mY + "]";
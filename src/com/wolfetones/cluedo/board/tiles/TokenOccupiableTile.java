@@ -37,6 +37,8 @@ public abstract class TokenOccupiableTile extends Tile {
 
     protected List<TokenOccupiableTile> mTokenTraversableNeighbours = new ArrayList<>();
 
+    private OccupancyListener mOccupancyListener;
+
     TokenOccupiableTile(int x, int y) {
         super(x, y);
     }
@@ -47,7 +49,13 @@ public abstract class TokenOccupiableTile extends Tile {
      * @param token the {@code Token} that is currently occupying this tile.
      */
     public void setToken(Token token) {
+        boolean changed = (mToken == null) != (token == null);
+
         mToken = token;
+
+        if (changed && mOccupancyListener != null) {
+            mOccupancyListener.onOccupancyChanged(this);
+        }
     }
 
     /**
@@ -85,4 +93,19 @@ public abstract class TokenOccupiableTile extends Tile {
     public boolean isFree() {
         return mToken == null;
     }
+
+    /**
+     * Sets the occupancy listener.
+     *
+     * Allows the board to keep its views of which tiles are occupied in sync with this tile.
+     *
+     * @param listener the occupancy listener
+     */
+    public void setOccupancyListener(OccupancyListener listener) {
+        mOccupancyListener = listener;
+    }
+
+    public interface OccupancyListener {
+        void onOccupancyChanged(TokenOccupiableTile tile);
+    }
 }
@@ -34,6 +34,8 @@ import java.awt.image.BufferedImage;
 public abstract class Card implements Comparable<Card> {
     private static final Class[] TYPE_ORDER = {Suspect.class, Weapon.class, Room.class};
 
+    private int mId = -1;
+
     private String mName;
     private String[] mSearchNames;
     private String mCardImage;
@@ -57,6 +59,49 @@ public abstract class Card implements Comparable<Card> {
      */
     protected abstract String getCardImageSuffix();
 
+    /**
+     * Gets the id of this card, its index in the list of all cards of the board.
+     *
+     * Ids are dense, suspects first followed by weapons and rooms, allowing sets of cards to be stored as bitmasks.
+     * Cards that are not part of the deck, such as the guess room, have no id.
+     *
+     * @return the card id
+     * @throws IllegalStateException If the card is not part of the deck.
+     */
+    public int getId() {
+        if (mId == -1) {
+            throw new IllegalStateException("Card " + mName + " is not part of the deck");
+        }
+
+        return mId;
+    }
+
+    /**
+     * Sets the id of this card.
+     *
+     * Assigned once by the board when the deck is created.
+     *
+     * @param id the card id
+     * @throws IllegalStateException If the card already has an id.
+     */
+    public void setId(int id) {
+        if (mId != -1) {
+            throw new IllegalStateException("Card " + mName + " already has an id");
+        }
+
+        mId = id;
+    }
+
+    /**
+     * Returns a bitmask with only the bit of this card's id set.
+     *
+     * @return the bitmask of this card
+     * @throws IllegalStateException If the card is not part of the deck.
+     */
+    public int getMask() {
+        return 1 << getId();
+    }
+
     /**
      * Gets the name of this card.
      *
@@ -27,12 +27,8 @@ package com.wolfetones.cluedo.card;
 import com.wolfetones.cluedo.board.tiles.PassageTile;
 import com.wolfetones.cluedo.board.tiles.RoomTile;
 import com.wolfetones.cluedo.board.Location;
-import com.wolfetones.cluedo.board.tiles.Tile;
+import com.wolfetones.cluedo.board.Path;
 import com.wolfetones.cluedo.config.Config;
-import com.wolfetones.cluedo.ui.Animator;
-import com.wolfetones.cluedo.ui.component.TokenComponent;
-
-import javax.swing.*;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -69,7 +65,7 @@ public class Room extends Card implements Location {
     private List<RoomTile> mTiles = new ArrayList<>();
     private List<RoomTile> mEntranceCorridors = new ArrayList<>();
 
-    private JComponent mLabel;
+    private LabelUpdateListener mLabelUpdateListener;
 
     /**
      * Center coordinates calculations
@@ -101,6 +97,15 @@ public class Room extends Card implements Location {
         }
     }
 
+    /**
+     * Returns a list of all tiles in the room.
+     *
+     * @return a list of all tiles in the room
+     */
+    public List<RoomTile> getTiles() {
+        return mTiles;
+    }
+
     /**
      * Returns the X coordinate of the center of the room (based on average tile coordinates).
      *
@@ -175,7 +180,7 @@ public class Room extends Card implements Location {
      * @param token token being added to the room
      * @param path the path being taken by the token to enter the room
      */
-    public void addToken(Token token, List<? extends Tile> path) {
+    public void addToken(Token token, Path path) {
         mTokens.add(token);
 
         updateTokenLocations(token, path);
@@ -197,7 +202,7 @@ public class Room extends Card implements Location {
      *
      * @
      */
-    private void updateTokenLocations(Token token, List<? extends Tile> path) {
+    private void updateTokenLocations(Token token, Path path) {
         int count = mTokens.size();
 
         float centerX = getCenterX() - 0.5f;
@@ -206,11 +211,8 @@ public class Room extends Card implements Location {
         // No tokens to update
         if (count == 0) {
             // Move label back to center
-            if (mLabel != null) {
-                Animator.getInstance().animate(mLabel)
-                        .translate(mLabel.getX(), (int) (centerY * mLabel.getHeight()))
-                        .setDuration(TokenComponent.ANIMATION_DURATION)
-                        .start();
+            if (mLabelUpdateListener != null) {
+                mLabelUpdateListener.update(centerY, 0);
             }
 
             return;
@@ -222,17 +224,11 @@ public class Room extends Card implements Location {
         int tokenIndex = 0;
         int rows = layout.length;
 
-        int delay = path != null ? path.size() - 1 : 0;
+        int delay = path != null ? path.getMoves() : 0;
 
         // Move label above top row
-        if (mLabel != null) {
-            float targetY = centerY - (float) (rows + 1) / 2;
-
-            Animator.getInstance().animate(mLabel)
-                    .translate(mLabel.getX(), (int) (targetY * mLabel.getHeight()))
-                    .setDuration(TokenComponent.ANIMATION_DURATION)
-                    .setDelay(delay * TokenComponent.ANIMATION_DURATION)
-                    .start();
+        if (mLabelUpdateListener != null) {
+            mLabelUpdateListener.update(centerY - (float) (rows + 1) / 2, delay);
         }
 
         // Move tokens
@@ -248,14 +244,14 @@ public class Room extends Card implements Location {
     }
 
     /**
-     * Sets the label component associated with this room.
+     * Sets the label update listener.
      *
-     * Used to move the label when tokens enter the room.
+     * Allows the room to notify its label of position changes when tokens enter or leave the room.
      *
-     * @param label the label component associated with this room.
+     * @param listener the label update listener
      */
-    public void setLabel(JComponent label) {
-        mLabel = label;
+    public void setLabelUpdateListener(LabelUpdateListener listener) {
+        mLabelUpdateListener = listener;
 
         updateTokenLocations(null, null);
     }
@@ -267,4 +263,8 @@ public class Room extends Card implements Location {
     protected String getCardImageSuffix() {
         return "room";
     }
+
+    public interface LabelUpdateListener {
+        void update(float y, int delay);
+    }
 }
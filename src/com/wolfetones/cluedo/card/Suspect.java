@@ -24,16 +24,14 @@
 
 package com.wolfetones.cluedo.card;
 
-import java.awt.Color;
-
 /**
  * Suspect
  */
 public class Suspect extends Token {
-    private Color mColor;
+    private int mColor;
     private boolean mMovedSinceLastTurn = false;
 
-    public Suspect(String name, String[] searchNames, String cardImage, Color color) {
+    public Suspect(String name, String[] searchNames, String cardImage, int color) {
         super(name, searchNames, cardImage);
 
         mColor = color;
@@ -42,9 +40,9 @@ public class Suspect extends Token {
     /**
      * Gets the suspect's associated color.
      *
-     * @return the color of the suspect
+     * @return the color of the suspect, as a packed {@code 0xRRGGBB} value
      */
-    public Color getColor() {
+    public int getColor() {
         return mColor;
     }
 
@@ -24,13 +24,12 @@
 
 package com.wolfetones.cluedo.card;
 
-import com.wolfetones.cluedo.board.tiles.Tile;
 import com.wolfetones.cluedo.util.ImageUtils;
 import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.board.Path;
 import com.wolfetones.cluedo.ui.component.TokenComponent;
 
 import java.awt.image.BufferedImage;
-import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -61,7 +60,7 @@ public abstract class Token extends Card {
      *
      * @param location the {@code Location} of the {@code Token}
      */
-    public void setLocation(Location location, List<? extends Tile> path) {
+    public void setLocation(Location location, Path path) {
         if (mLocation != null) {
             if (mLocation.isRoom()) {
                 mLocation.asRoom().removeToken(this);
@@ -98,7 +97,7 @@ public abstract class Token extends Card {
      * @param x X coordinate
      * @param y Y coordinate
      */
-    public void setCoordinates(float x, float y, List<? extends Tile> path, int delay) {
+    public void setCoordinates(float x, float y, Path path, int delay) {
         mCoordinateX = x;
         mCoordinateY = y;
 
@@ -137,6 +136,6 @@ public abstract class Token extends Card {
     }
 
     public interface CoordinatesUpdateListener {
-        void update(List<? extends Tile> path, int delay);
+        void update(Path path, int delay);
     }
 }
@@ -25,7 +25,10 @@
 package com.wolfetones.cluedo.config;
 
 
-import java.awt.*;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Toolkit;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,16 +46,29 @@ public class Config {
             "  |____|   |___|  /\\___  >   \\__/\\  / \\____/|____/__|  \\___  >   |____| \\____/|___|  /\\___  >____  >\n" +
             "                \\/     \\/         \\/                       \\/                      \\/     \\/     \\/ ";
 
-    public static Font FONT;
+    /**
+     * Returns the game font.
+     *
+     * The font is loaded when first requested, so that the game can run without a display.
+     *
+     * @return the game font
+     */
+    public static Font getFont() {
+        return FontHolder.FONT;
+    }
+
+    private static class FontHolder {
+        private static final Font FONT = loadFont();
 
-    static {
-        try {
-            FONT = Font.createFont(Font.TRUETYPE_FONT, Config.class.getClassLoader().getResourceAsStream("capone-cg-light.otf"));
-        } catch (FontFormatException | IOException e) {
-            new Exception("Error loading font", e).printStackTrace();
+        private static Font loadFont() {
+            try {
+                return Font.createFont(Font.TRUETYPE_FONT, Config.class.getClassLoader().getResourceAsStream("capone-cg-light.otf"));
+            } catch (FontFormatException | IOException e) {
+                new Exception("Error loading font", e).printStackTrace();
 
-            // Load default font instead
-            FONT = new Font(Font.SANS_SERIF, Font.PLAIN, Config.screenRelativeSize(12));
+                // Load default font instead
+                return new Font(Font.SANS_SERIF, Font.PLAIN, Config.screenRelativeSize(12));
+            }
         }
     }
 
@@ -165,12 +181,12 @@ public class Config {
         };
 
         public static final Suspect[] SUSPECTS = {
-                new Suspect("Miss Scarlett", new String[] {"missscarlett", "scarlett", "red"}, "miss-scarlett", Color.RED),
-                new Suspect("Colonel Mustard", new String[] {"colonelmustard", "mustard", "yellow"}, "colonel-mustard", Color.YELLOW),
-                new Suspect("Mrs. White", new String[] {"mrswhite", "white"}, "mrs-white", Color.WHITE),
-                new Suspect("Reverend Green", new String[] {"reverendgreen", "green"}, "reverend-green", Color.GREEN),
-                new Suspect("Mrs. Peacock", new String[] {"mrspeacock", "peacock", "blue"}, "mrs-peacock", Color.BLUE),
-                new Suspect("Professor Plum", new String[] {"professorplum", "plum", "purple"}, "professor-plum", Color.MAGENTA)
+                new Suspect("Miss Scarlett", new String[] {"missscarlett", "scarlett", "red"}, "miss-scarlett", 0xFF0000),
+                new Suspect("Colonel Mustard", new String[] {"colonelmustard", "mustard", "yellow"}, "colonel-mustard", 0xFFFF00),
+                new Suspect("Mrs. White", new String[] {"mrswhite", "white"}, "mrs-white", 0xFFFFFF),
+                new Suspect("Reverend Green", new String[] {"reverendgreen", "green"}, "reverend-green", 0x00FF00),
+                new Suspect("Mrs. Peacock", new String[] {"mrspeacock", "peacock", "blue"}, "mrs-peacock", 0x0000FF),
+                new Suspect("Professor Plum", new String[] {"professorplum", "plum", "purple"}, "professor-plum", 0xFF00FF)
         };
 
         public static final Weapon[] WEAPONS = {
@@ -196,9 +212,10 @@ public class Config {
         }
 
         public static class Suspect extends Card {
-            public final Color color;
+            /** Packed {@code 0xRRGGBB} color */
+            public final int color;
 
-            Suspect(String n, String[] s, String r, Color c) {
+            Suspect(String n, String[] s, String r, int c) {
                 super(n, s, r);
                 color = c;
             }
@@ -224,22 +241,28 @@ public class Config {
     }
 
     private static final int DEFAULT_SCREEN_HEIGHT = 1080;
-    private static Dimension sScreenSize = Toolkit.getDefaultToolkit().getScreenSize();
-    private static double sScreenRelativeSize = (double) sScreenSize.height / DEFAULT_SCREEN_HEIGHT;
+
+    /**
+     * Screen dimensions, queried when first needed so that the game can run without a display.
+     */
+    private static class Screen {
+        private static final Dimension SIZE = Toolkit.getDefaultToolkit().getScreenSize();
+        private static final double RELATIVE_SIZE = (double) SIZE.height / DEFAULT_SCREEN_HEIGHT;
+    }
 
     public static int screenRelativeSize(int size) {
-        return (int) Math.ceil(size * sScreenRelativeSize);
+        return (int) Math.ceil(size * Screen.RELATIVE_SIZE);
     }
 
     public static double screenRelativeSize(double size) {
-        return size * sScreenRelativeSize;
+        return size * Screen.RELATIVE_SIZE;
     }
 
     public static int screenWidthPercentage(float percentage) {
-        return (int) (sScreenSize.width * percentage);
+        return (int) (Screen.SIZE.width * percentage);
     }
 
     public static int screenHeightPercentage(float percentage) {
-        return (int) (sScreenSize.height * percentage);
+        return (int) (Screen.SIZE.height * percentage);
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws complete deals of the cards hidden from a player, uniformly at random from the deals consistent with the
+ * player's {@link Knowledge}.
+ *
+ * A deal is the solution followed by the hand of every other player, in order of play after the player, each as a
+ * bitmask of card ids like {@link Player#getHand()}. Deals are written to a flat array, to be reused between
+ * batches of samples.
+ *
+ * Samplers must be prepared with {@link DealSampler#prepare(Knowledge)} whenever the knowledge changes, reusing
+ * their tables between preparations. Samplers are not thread safe.
+ *
+ * @see ProbabilityEngine
+ */
+public class DealSampler {
+    /** Index of the solution cards within a deal */
+    public static final int SOLUTION = 0;
+
+    private final ProbabilityEngine mEngine = new ProbabilityEngine();
+
+    private Knowledge mKnowledge;
+    private long mDealCount;
+
+    /**
+     * Prepares the sampler to draw deals consistent with the specified knowledge.
+     *
+     * Later changes to the knowledge are not reflected until the sampler is prepared again.
+     *
+     * @param knowledge the knowledge of a player
+     * @return the number of consistent deals, or {@code 0} if the knowledge is contradictory
+     */
+    public long prepare(Knowledge knowledge) {
+        mKnowledge = knowledge;
+        mDealCount = mEngine.prepare(knowledge);
+
+        return mDealCount;
+    }
+
+    /**
+     * Returns the number of elements of each deal.
+     *
+     * @return the number of elements of each deal
+     */
+    public int getDealSize() {
+        return 1 + mKnowledge.getPlayerCount();
+    }
+
+    /**
+     * Returns the index of the hand of the specified player within a deal.
+     *
+     * @param player the player of interest, other than the player the knowledge belongs to
+     * @return the index of the player's hand within a deal
+     */
+    public int getHandIndex(Player player) {
+        return 1 + mKnowledge.getPlayerIndex(player);
+    }
+
+    /**
+     * Draws the specified number of deals into the start of the specified array.
+     *
+     * @param random source of randomness
+     * @param deals array to write the deals to, one after another
+     * @param count number of deals to draw
+     * @throws IllegalStateException If the sampler has not been prepared or there are no consistent deals.
+     * @throws IllegalArgumentException If the array cannot hold the deals.
+     */
+    public void sample(SplittableRandom random, int[] deals, int count) {
+        if (mDealCount == 0) {
+            throw new IllegalStateException("No consistent deals to sample");
+        }
+
+        int size = getDealSize();
+        if ((long) count * size > deals.length) {
+            throw new IllegalArgumentException("Array cannot hold " + count + " deals");
+        }
+
+        for (int i = 0; i < count; i++) {
+            mEngine.sample(random, deals, i * size);
+        }
+    }
+}
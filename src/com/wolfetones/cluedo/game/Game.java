@@ -26,10 +26,16 @@ package com.wolfetones.cluedo.game;
 
 import com.wolfetones.cluedo.board.BoardModel;
 import com.wolfetones.cluedo.board.Location;
-import com.wolfetones.cluedo.board.PathFinder;
+import com.wolfetones.cluedo.board.LocationGraph;
+import com.wolfetones.cluedo.board.Path;
+import com.wolfetones.cluedo.board.ReachabilityMap;
 import com.wolfetones.cluedo.board.tiles.*;
 import com.wolfetones.cluedo.card.Card;
 import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.card.Suspect;
+import com.wolfetones.cluedo.card.Token;
+import com.wolfetones.cluedo.card.Weapon;
+import com.wolfetones.cluedo.util.RandomUtils;
 
 import java.util.*;
 import java.util.List;
@@ -38,7 +44,10 @@ import java.util.stream.Collectors;
 public class Game {
     public static final int NUM_DICE = Boolean.parseBoolean(System.getProperty("debug")) ? 4 : 2;
 
-    private static Random sRandom = new Random();
+    /** Seed the game's randomness was created from */
+    private final long mSeed;
+    /** Source of all randomness in the game */
+    private final SplittableRandom mRandom;
 
     // States
     private boolean mStarted = false;
@@ -46,6 +55,14 @@ public class Game {
 
     /** Cards that have not been distributed to any player (visible to all) */
     private List<Card> mUndistributedCards = new ArrayList<>(0);
+    /** Bitmask of the ids of the undistributed cards */
+    private int mUndistributedCardsMask = 0;
+
+    /**
+     * Index of the first player to respond to each suggestion, {@code [asker * Suggestion.CODE_COUNT + code]},
+     * or {@code -1} if no other player holds any of the suggested cards.
+     */
+    private byte[] mResponders;
 
     /** Game solution */
     private Suggestion mSolution;
@@ -76,10 +93,53 @@ public class Game {
     private Suggestion mTurnQuestionSuggestion;
     private Player mTurnQuestionCardHolder;
 
+    /** Shortest paths from the player's current location, built when first needed after each move */
+    private ReachabilityMap mTurnReachabilityMap;
+    private long mTurnReachabilityMapVersion;
+
+    /**
+     * Undo journal of actions taken in the current turn, see {@link Game#undo()}.
+     *
+     * Each action appends a frame of primitive records, followed by the index at which the frame starts:
+     * {@code [flags, remainingMoves, locationNode, question, questionCardHolder, logSize,
+     *         knowledgeMark..., token..., frameStart]}
+     */
+    private int[] mJournal = new int[64];
+    private int mJournalSize = 0;
+
+    private static final int JOURNAL_FRAME_HEADER = 6;
+
+    static final int FLAG_CAN_ROLL_DICE = 1;
+    static final int FLAG_CAN_USE_PASSAGE = 1 << 1;
+    static final int FLAG_CAN_POSE_QUESTION = 1 << 2;
+    static final int FLAG_CAN_MAKE_FINAL_ACCUSATION = 1 << 3;
+    static final int FLAG_TURN_FINISHED = 1 << 4;
+    static final int FLAG_HAS_MOVED = 1 << 5;
+    static final int FLAG_MOVEMENT_COMPLETE = 1 << 6;
+    /** Frame contains a knowledge mark for every player */
+    private static final int FLAG_KNOWLEDGE = 1 << 7;
+
+    /**
+     * Latest snapshot of the game state, published after every change
+     */
+    private volatile GameState mState;
+    private int mStateVersion = 0;
+    /**
+     * Parts of the snapshot that only change before the game starts, shared between snapshots.
+     *
+     * Once published the arrays must not be modified, they are replaced instead.
+     */
+    private int[] mStatePlayerSuspects = new int[0];
+    private int[] mStateHands = new int[0];
+    private int mStateUndistributedCards = 0;
+
     /**
      * Board
      */
-    private BoardModel mBoard = new BoardModel();
+    private BoardModel mBoard;
+
+    /** Dice-aware room reachability, memoised across turns */
+    private RoomReachability mRoomReachability;
 
     /**
      * Log
@@ -147,6 +207,41 @@ public class Game {
         }
     }
 
+    /**
+     * Constructs a new game with a random seed.
+     */
+    public Game() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructs a new game whose randomness is derived entirely from {@code seed}.
+     *
+     * Weapon placement, the solution, the distribution of cards and dice rolls are all drawn from a single
+     * {@link SplittableRandom} owned by the game, so two games created with the same seed and played with the
+     * same moves are identical.
+     *
+     * @param seed the seed of the game
+     */
+    public Game(long seed) {
+        mSeed = seed;
+        mRandom = new SplittableRandom(seed);
+
+        mBoard = new BoardModel(mRandom);
+        mRoomReachability = new RoomReachability(mBoard, NUM_DICE);
+
+        publishState();
+    }
+
+    /**
+     * Gets the seed this game was created with, allowing it to be replayed.
+     *
+     * @return the seed of the game
+     */
+    public long getSeed() {
+        return mSeed;
+    }
+
     /**
      * Add a player to the game.
      *
@@ -161,6 +256,12 @@ public class Game {
         }
 
         mPlayers.add(player);
+
+        mStatePlayerSuspects = Arrays.copyOf(mStatePlayerSuspects, mPlayers.size());
+        mStatePlayerSuspects[mPlayers.size() - 1] = mBoard.getSuspects().indexOf(player.getCharacter());
+        mStateHands = new int[mPlayers.size()];
+
+        publishState();
     }
 
     /**
@@ -185,6 +286,27 @@ public class Game {
         mActivePlayerIterator = mActivePlayers.listIterator();
 
         setupCards();
+
+        // Published arrays are never modified, the snapshot taken before the deal keeps its empty hands
+        int[] hands = new int[mPlayers.size()];
+        for (int i = 0; i < mPlayers.size(); i++) {
+            hands[i] = mPlayers.get(i).getHand();
+        }
+        mStateHands = hands;
+        mStateUndistributedCards = mUndistributedCardsMask;
+
+        publishState();
+    }
+
+    /**
+     * Returns the latest snapshot of the game state.
+     *
+     * A new snapshot is published after every change of state, so this method can safely be called from any thread.
+     *
+     * @return the latest snapshot of the game state
+     */
+    public GameState getState() {
+        return mState;
     }
 
     /**
@@ -227,6 +349,15 @@ public class Game {
         return mLog;
     }
 
+    /**
+     * Gets the players that have not been eliminated by an incorrect final accusation.
+     *
+     * @return an unmodifiable list of the players still in the game.
+     */
+    public List<Player> getActivePlayers() {
+        return Collections.unmodifiableList(mActivePlayers);
+    }
+
     /**
      * Moves to the next player and updates states.
      *
@@ -262,8 +393,9 @@ public class Game {
         }
         mTurnMovementComplete = !mTurnCanRollDice && !mTurnCanUsePassage;
 
-        // Check if player can guess immediately
+        // Check if player can guess immediately, which is only possible on the turn following the move
         mTurnCanPoseQuestion = mCurrentPlayer.getCharacter().getMovedSinceLastTurn();
+        mCurrentPlayer.getCharacter().setMovedSinceLastTurn(false);
 
         // Should never be able to make accusation as this point
         mTurnCanMakeFinalAccusation = false;
@@ -279,6 +411,17 @@ public class Game {
         mTurnQuestionSuggestion = null;
         mTurnQuestionCardHolder = null;
 
+        // Paths must be found from the new player's location
+        mTurnReachabilityMap = null;
+
+        // Actions can only be undone within a turn
+        mJournalSize = 0;
+        for (Player player : mPlayers) {
+            player.getKnowledge().clearJournal();
+        }
+
+        publishState();
+
         return mCurrentPlayer;
     }
 
@@ -305,10 +448,12 @@ public class Game {
             throw new IllegalArgumentException("int[] dice must be of size " + NUM_DICE);
         }
 
+        journal(false);
+
         // Random dice roll
         for (int i = 0; i < NUM_DICE; i++) {
             if (dice[i] == 0) {
-                dice[i] = sRandom.nextInt(6) + 1;
+                dice[i] = mRandom.nextInt(6) + 1;
             }
             mTurnRemainingMoves += dice[i];
         }
@@ -319,6 +464,8 @@ public class Game {
         // Can no longer guess (until movement is complete)
         mTurnCanPoseQuestion = false;
 
+        publishState();
+
         return mTurnRemainingMoves;
     }
 
@@ -343,11 +490,15 @@ public class Game {
         PassageTile currentRoomPassageTile = mCurrentPlayerLocation.asRoom().getPassageTile();
         PassageTile passageRoomPassageTile = passageRoom.getPassageTile();
 
+        journal(false, mCurrentPlayer.getCharacter());
+
         // Move to new room
-        completeMove(mCurrentPlayerLocation.asRoom().getPassageRoom(), List.of(currentRoomPassageTile, passageRoomPassageTile));
+        completeMove(mCurrentPlayerLocation.asRoom().getPassageRoom(), mBoard.getPathFinder().createPath(currentRoomPassageTile, passageRoomPassageTile));
 
         // Can no longer move
         mTurnMovementComplete = true;
+
+        publishState();
     }
 
     /**
@@ -367,24 +518,29 @@ public class Game {
         }
 
         // Make sure tile can be reached within the allowed number of moves
-        List<TokenOccupiableTile> shortestPath = PathFinder.findShortestPathAdvanced(mCurrentPlayerLocation, location, mTurnRemainingMoves);
-        if (shortestPath == null) {
+        ReachabilityMap reachabilityMap = getReachabilityMap();
+        Path shortestPath = reachabilityMap.getPath(location);
+        if (shortestPath == null || !reachabilityMap.isReachable(location, mTurnRemainingMoves)) {
             throw new IllegalArgumentException("Cannot move to location " + location);
         }
 
+        journal(false, mCurrentPlayer.getCharacter());
+
         // Subtract the number of moves used
-        mTurnRemainingMoves -= shortestPath.size() - 1;
+        mTurnRemainingMoves -= shortestPath.getMoves();
 
         if (!mCurrentPlayerLocation.isRoom()) {
-            shortestPath.remove(0);
+            shortestPath = shortestPath.dropFirst();
         }
         if (!location.isRoom()) {
-            shortestPath.remove(shortestPath.size() - 1);
+            shortestPath = shortestPath.dropLast();
         }
 
         // Update states
         completeMove(location, shortestPath);
 
+        publishState();
+
         return mTurnRemainingMoves;
     }
 
@@ -404,9 +560,13 @@ public class Game {
             throw new IllegalStateException("Player cannot stop movement once already in room");
         }
 
+        journal(false);
+
         // Turn is finished
         mTurnRemainingMoves = 0;
         mTurnFinished = true;
+
+        publishState();
     }
 
     /**
@@ -415,7 +575,7 @@ public class Game {
      * @param location the player's new location
      * @param path the path taken to the new location
      */
-    private void completeMove(Location location, List<? extends Tile> path) {
+    private void completeMove(Location location, Path path) {
         // Update whether the player has moved to allow stopping movement before all moves get used up
         if (location != mCurrentPlayerLocation) {
             mTurnHasMoved = true;
@@ -425,6 +585,9 @@ public class Game {
         mCurrentPlayer.getCharacter().setLocation(location, path);
         mCurrentPlayerLocation = location;
 
+        // Paths must be found from the new location
+        mTurnReachabilityMap = null;
+
         // Update states
         if (location.isRoom()) {
             mTurnCanPoseQuestion = !location.asRoom().isGuessRoom();
@@ -449,10 +612,12 @@ public class Game {
         }
 
         // Can't pose question using undistributed cards
-        if (mUndistributedCards.contains(suggestion.suspect) || mUndistributedCards.contains(suggestion.weapon)) {
+        if ((mUndistributedCardsMask & (suggestion.suspect.getMask() | suggestion.weapon.getMask())) != 0) {
             throw new IllegalArgumentException("Cannot make guess using any of the undistributed cards");
         }
 
+        journal(true, suggestion.suspect, suggestion.weapon);
+
         // Can no longer pose question
         mTurnCanPoseQuestion = false;
 
@@ -468,17 +633,15 @@ public class Game {
         suggestion.suspect.setLocation(suggestion.room, null);
         suggestion.weapon.setLocation(suggestion.room, null);
 
-        // Loop through players
-        Player matchingPlayer = null;
-        Iterator<Player> iterator = mPlayers.iteratorStartingAfter(mCurrentPlayer);
-        while (iterator.hasNext()) {
-            Player checkPlayer = iterator.next();
-            // Return first player that has one of the suggestion's cards
-            if (checkPlayer.hasAnySuggestionCards(suggestion)) {
-                matchingPlayer = checkPlayer;
-                break;
-            }
+        // Find first player that has one of the suggestion's cards
+        int asker = mPlayers.indexOf(mCurrentPlayer);
+        int responder = mResponders[asker * Suggestion.CODE_COUNT + suggestion.getCode()];
+        Player matchingPlayer = responder < 0 ? null : mPlayers.get(responder);
 
+        // Players before the responder are known not to be holding any of the cards
+        int end = responder < 0 ? asker : responder;
+        for (int i = (asker + 1) % mPlayers.size(); i != end; i = (i + 1) % mPlayers.size()) {
+            Player checkPlayer = mPlayers.get(i);
             for (Card card : suggestion.asList()) {
                 for (Player player : mPlayers) {
                     if (player == checkPlayer) continue;
@@ -487,6 +650,14 @@ public class Game {
             }
         }
 
+        // Everyone sees the responder show one of the cards
+        if (matchingPlayer != null) {
+            for (Player player : mPlayers) {
+                if (player == matchingPlayer) continue;
+                player.getKnowledge().setHoldingAny(suggestion.getCardMask(), matchingPlayer);
+            }
+        }
+
         // If no matches found, either correct final accusation or player posing question has cards
         if (matchingPlayer == null) {
             // Insert log entry
@@ -495,12 +666,16 @@ public class Game {
             // Turn can finish as no response is required
             mTurnFinished = true;
 
+            publishState();
+
             return null;
         }
 
         mTurnQuestionSuggestion = suggestion;
         mTurnQuestionCardHolder = matchingPlayer;
 
+        publishState();
+
         return matchingPlayer;
     }
 
@@ -522,6 +697,8 @@ public class Game {
             throw new IllegalArgumentException(card.getName() + " is not one of the suggested cards");
         }
 
+        journal(true);
+
         mCurrentPlayer.getKnowledge().setHolding(card, mTurnQuestionCardHolder, true);
 
         // Insert log entry
@@ -531,6 +708,8 @@ public class Game {
         mTurnQuestionCardHolder = null;
 
         mTurnFinished = true;
+
+        publishState();
     }
 
     /**
@@ -560,15 +739,322 @@ public class Game {
         mLog.add(LogEntry.newFinalAccusationEntry(mCurrentPlayer, suggestion, mSolution.equals(suggestion)));
 
         // Check whether accusation is correct
-        if (mSolution.equals(suggestion)) {
+        boolean correct = mSolution.equals(suggestion);
+        if (correct) {
             mFinished = true;
-            return true;
         } else {
             // Remove player if accusation is incorrect
             mActivePlayerIterator.remove();
             mFinished = mActivePlayers.size() <= 1;
+        }
+
+        publishState();
+
+        return correct;
+    }
+
+    /**
+     * Lists every action the current player can legally take in the current phase of the turn.
+     *
+     * Moves are encoded as described in {@link Move}. Before moving the list contains the dice roll and passage,
+     * after rolling every location reachable with the remaining moves, and once in a room every allowed question
+     * or every possible final accusation. While waiting for a question response, the list contains the cards that
+     * the responding player can show. Once the turn is finished the list contains the end of the turn. The game is
+     * not modified.
+     *
+     * @return the encoded legal moves, empty if the game has finished.
+     */
+    public int[] getLegalMoves() {
+        if (mFinished) {
+            return new int[0];
+        }
+
+        LocationGraph graph = mBoard.getLocationGraph();
+        int[] moves = new int[graph.getNodeCount() + Suggestion.CODE_COUNT + 4];
+        int count = 0;
+
+        // Only the responding player can act until the question has been answered
+        if (mTurnQuestionCardHolder != null) {
+            int cards = mTurnQuestionCardHolder.getHand() & mTurnQuestionSuggestion.getCardMask();
+            while (cards != 0) {
+                moves[count++] = Move.of(Move.QUESTION_RESPONSE, Integer.numberOfTrailingZeros(cards));
+                cards &= cards - 1;
+            }
+
+            return Arrays.copyOf(moves, count);
+        }
+
+        if (canRollDice()) {
+            moves[count++] = Move.of(Move.ROLL_DICE);
+        }
+
+        if (canUsePassage()) {
+            moves[count++] = Move.of(Move.USE_PASSAGE);
+        }
+
+        // Every location within the remaining moves, other than the current location and the initial room
+        if (mTurnRemainingMoves > 0) {
+            ReachabilityMap reachabilityMap = getReachabilityMap();
+            for (int node = 0; node < graph.getNodeCount(); node++) {
+                Location location = graph.getLocation(node);
+                if (location == mCurrentPlayerLocation || location == mTurnInitialPlayerRoom) continue;
+
+                int distance = reachabilityMap.getDistance(node);
+                if (distance == ReachabilityMap.UNREACHABLE || distance > mTurnRemainingMoves) continue;
+
+                moves[count++] = Move.moveTo(node, location.isRoom() ? 0 : mTurnRemainingMoves - distance);
+            }
+        }
+
+        if (canStopMoving()) {
+            moves[count++] = Move.of(Move.STOP_MOVING);
+        }
+
+        // Every suggestion in the current room, excluding undistributed cards
+        if (mTurnCanPoseQuestion && mCurrentPlayerLocation.isRoom()) {
+            int roomId = mCurrentPlayerLocation.asRoom().getId();
+            for (Suspect suspect : mBoard.getSuspects()) {
+                if ((mUndistributedCardsMask & suspect.getMask()) != 0) continue;
+
+                for (Weapon weapon : mBoard.getWeapons()) {
+                    if ((mUndistributedCardsMask & weapon.getMask()) != 0) continue;
+
+                    moves[count++] = Move.of(Move.POSE_QUESTION, Suggestion.getCode(suspect.getId(), weapon.getId(), roomId));
+                }
+            }
+        }
+
+        // Every possible accusation in the guess room
+        if (mTurnCanMakeFinalAccusation) {
+            for (int code = 0; code < Suggestion.CODE_COUNT; code++) {
+                moves[count++] = Move.of(Move.FINAL_ACCUSATION, code);
+            }
+        }
+
+        if (mTurnFinished) {
+            moves[count++] = Move.of(Move.END_TURN);
+        }
+
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * Returns {@code true} if the encoded move is one of the {@link Game#getLegalMoves() legal moves}.
+     *
+     * Only the conditions for the type of the move are checked, without listing the legal moves.
+     *
+     * @param move the encoded move
+     * @return {@code true} if the move is legal
+     */
+    public boolean isLegalMove(int move) {
+        if (mFinished) {
             return false;
         }
+
+        int type = Move.getType(move);
+
+        // Only the responding player can act until the question has been answered
+        if (mTurnQuestionCardHolder != null) {
+            if (type != Move.QUESTION_RESPONSE) {
+                return false;
+            }
+
+            int cardId = Move.getCardId(move);
+            return move == Move.of(type, cardId) && cardId < mBoard.getCards().size()
+                    && (mTurnQuestionCardHolder.getHand() & mTurnQuestionSuggestion.getCardMask() & 1 << cardId) != 0;
+        }
+
+        switch (type) {
+            case Move.ROLL_DICE:
+                return move == Move.of(type) && canRollDice();
+            case Move.USE_PASSAGE:
+                return move == Move.of(type) && canUsePassage();
+            case Move.MOVE_TO:
+                return isLegalMoveTo(move);
+            case Move.STOP_MOVING:
+                return move == Move.of(type) && canStopMoving();
+            case Move.POSE_QUESTION: {
+                int code = Move.getSuggestionCode(move);
+                if (move != Move.of(type, code) || code >= Suggestion.CODE_COUNT
+                        || !mTurnCanPoseQuestion || !mCurrentPlayerLocation.isRoom()) {
+                    return false;
+                }
+
+                // Suggestions are made in the current room, excluding undistributed cards
+                int suspectAndWeapon = 1 << Suggestion.getSuspectId(code) | 1 << Suggestion.getWeaponId(code);
+                return Suggestion.getRoomId(code) == mCurrentPlayerLocation.asRoom().getId()
+                        && (mUndistributedCardsMask & suspectAndWeapon) == 0;
+            }
+            case Move.FINAL_ACCUSATION: {
+                int code = Move.getSuggestionCode(move);
+                return move == Move.of(type, code) && code < Suggestion.CODE_COUNT && mTurnCanMakeFinalAccusation;
+            }
+            case Move.END_TURN:
+                return move == Move.of(type) && mTurnFinished;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the encoded {@link Move#MOVE_TO} move is legal, looking up the distance to its
+     * destination.
+     *
+     * @param move the encoded move
+     * @return {@code true} if the move is legal
+     */
+    private boolean isLegalMoveTo(int move) {
+        if (mTurnRemainingMoves <= 0) {
+            return false;
+        }
+
+        LocationGraph graph = mBoard.getLocationGraph();
+        int node = Move.getLocationNode(move);
+        if (node >= graph.getNodeCount()) {
+            return false;
+        }
+
+        // Every location within the remaining moves, other than the current location and the initial room
+        Location location = graph.getLocation(node);
+        if (location == mCurrentPlayerLocation || location == mTurnInitialPlayerRoom) {
+            return false;
+        }
+
+        int distance = getReachabilityMap().getDistance(node);
+        if (distance == ReachabilityMap.UNREACHABLE || distance > mTurnRemainingMoves) {
+            return false;
+        }
+
+        return move == Move.moveTo(node, location.isRoom() ? 0 : mTurnRemainingMoves - distance);
+    }
+
+    /**
+     * Performs an encoded move, as listed by {@link Game#getLegalMoves()}.
+     *
+     * Dice are rolled randomly, and {@link Move#END_TURN} moves to the next player.
+     *
+     * @param move the encoded move
+     * @throws IllegalStateException If the move cannot be performed in the current state.
+     * @throws IllegalArgumentException If the move is invalid.
+     */
+    public void makeMove(int move) {
+        switch (Move.getType(move)) {
+            case Move.ROLL_DICE:
+                rollDice(new int[NUM_DICE]);
+                break;
+            case Move.USE_PASSAGE:
+                usePassage();
+                break;
+            case Move.MOVE_TO:
+                moveTo(mBoard.getLocationGraph().getLocation(Move.getLocationNode(move)));
+                break;
+            case Move.STOP_MOVING:
+                stopMoving();
+                break;
+            case Move.POSE_QUESTION:
+                poseQuestion(Suggestion.fromCode(Move.getSuggestionCode(move), mBoard));
+                break;
+            case Move.QUESTION_RESPONSE:
+                questionResponse(mBoard.getCards().get(Move.getCardId(move)));
+                break;
+            case Move.FINAL_ACCUSATION:
+                makeFinalAccusation(Suggestion.fromCode(Move.getSuggestionCode(move), mBoard));
+                break;
+            case Move.END_TURN:
+                nextTurn();
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid move " + move);
+        }
+    }
+
+    /**
+     * Returns {@code true} if an action taken in the current turn can be undone.
+     *
+     * @return {@code true} if an action taken in the current turn can be undone.
+     */
+    public boolean canUndo() {
+        return mJournalSize > 0;
+    }
+
+    /**
+     * Undoes the most recent action taken in the current turn.
+     *
+     * Rolling the dice, using a passage, moving, stopping, posing a question and responding to a question can be
+     * undone, restoring the turn state, token locations, player knowledge and log exactly as they were before the
+     * action. This allows searches to explore actions in place rather than copying the game.
+     *
+     * The random number generator is not rewound by undoing a dice roll, so searches should pass the dice values
+     * they wish to explore to {@link Game#rollDice(int[])}. Actions can no longer be undone once the next turn starts.
+     *
+     * @throws IllegalStateException If there is no action to undo.
+     */
+    public void undo() {
+        if (mJournalSize == 0) {
+            throw new IllegalStateException("No action to undo");
+        }
+
+        LocationGraph graph = mBoard.getLocationGraph();
+
+        int end = mJournalSize - 1;
+        int start = mJournal[end];
+        int record = start;
+
+        int flags = mJournal[record++];
+        int remainingMoves = mJournal[record++];
+        int locationNode = mJournal[record++];
+        int question = mJournal[record++];
+        int questionCardHolder = mJournal[record++];
+        int logSize = mJournal[record++];
+
+        // Roll back knowledge of all players
+        if ((flags & FLAG_KNOWLEDGE) != 0) {
+            for (Player player : mPlayers) {
+                player.getKnowledge().rollback(mJournal[record++]);
+            }
+        }
+
+        // Return tokens to their previous locations, most recently recorded first
+        for (int i = end - 1; i >= record; i--) {
+            int token = mJournal[i];
+
+            Token card = (Token) mBoard.getCards().get(token & 0xFF);
+            card.setLocation(graph.getLocation(token >>> 8 & 0xFFFF), null);
+            if (card instanceof Suspect) {
+                ((Suspect) card).setMovedSinceLastTurn((token >>> 24) != 0);
+            }
+        }
+
+        // Remove log entries
+        mLog.subList(logSize, mLog.size()).clear();
+
+        // Restore turn states
+        mTurnCanRollDice = (flags & FLAG_CAN_ROLL_DICE) != 0;
+        mTurnCanUsePassage = (flags & FLAG_CAN_USE_PASSAGE) != 0;
+        mTurnCanPoseQuestion = (flags & FLAG_CAN_POSE_QUESTION) != 0;
+        mTurnCanMakeFinalAccusation = (flags & FLAG_CAN_MAKE_FINAL_ACCUSATION) != 0;
+        mTurnFinished = (flags & FLAG_TURN_FINISHED) != 0;
+        mTurnHasMoved = (flags & FLAG_HAS_MOVED) != 0;
+        mTurnMovementComplete = (flags & FLAG_MOVEMENT_COMPLETE) != 0;
+        mTurnRemainingMoves = remainingMoves;
+        mCurrentPlayerLocation = graph.getLocation(locationNode);
+
+        if (question < 0) {
+            mTurnQuestionSuggestion = null;
+        } else {
+            List<Card> cards = mBoard.getCards();
+            mTurnQuestionSuggestion = new Suggestion((Suspect) cards.get(question & 0xFF),
+                    (Weapon) cards.get(question >>> 8 & 0xFF),
+                    (Room) cards.get(question >>> 16 & 0xFF));
+        }
+        mTurnQuestionCardHolder = questionCardHolder < 0 ? null : mPlayers.get(questionCardHolder);
+
+        // Paths must be found from the restored location
+        mTurnReachabilityMap = null;
+
+        mJournalSize = start;
+
+        publishState();
     }
 
     /**
@@ -580,6 +1066,31 @@ public class Game {
         return mCurrentPlayerLocation;
     }
 
+    /**
+     * Returns the shortest paths from the player's current location to every reachable location.
+     *
+     * The map is built once and reused until the player moves or the occupancy of the board changes.
+     *
+     * @return the shortest paths from the player's current location.
+     */
+    public ReachabilityMap getReachabilityMap() {
+        if (mTurnReachabilityMap == null || mTurnReachabilityMapVersion != mBoard.getOccupancyVersion()) {
+            mTurnReachabilityMap = mBoard.getPathFinder().findReachableLocations(mCurrentPlayerLocation);
+            mTurnReachabilityMapVersion = mBoard.getOccupancyVersion();
+        }
+
+        return mTurnReachabilityMap;
+    }
+
+    /**
+     * Returns the probabilities of reaching each room from the player's current location.
+     *
+     * @return the reachability of every room from the player's current location.
+     */
+    public RoomReachability.Table getRoomReachability() {
+        return mRoomReachability.get(mCurrentPlayerLocation);
+    }
+
     /**
      * Returns the {@code Room} in which the player was at the beginning of their turn.
      *
@@ -665,6 +1176,100 @@ public class Game {
         return mFinished;
     }
 
+    /**
+     * Returns the turn states packed into flags.
+     *
+     * @return the turn flags
+     */
+    private int getTurnFlags() {
+        return (mTurnCanRollDice ? FLAG_CAN_ROLL_DICE : 0)
+                | (mTurnCanUsePassage ? FLAG_CAN_USE_PASSAGE : 0)
+                | (mTurnCanPoseQuestion ? FLAG_CAN_POSE_QUESTION : 0)
+                | (mTurnCanMakeFinalAccusation ? FLAG_CAN_MAKE_FINAL_ACCUSATION : 0)
+                | (mTurnFinished ? FLAG_TURN_FINISHED : 0)
+                | (mTurnHasMoved ? FLAG_HAS_MOVED : 0)
+                | (mTurnMovementComplete ? FLAG_MOVEMENT_COMPLETE : 0);
+    }
+
+    /**
+     * Takes a snapshot of the current state and publishes it to readers of {@link Game#getState()}.
+     */
+    private void publishState() {
+        LocationGraph graph = mBoard.getLocationGraph();
+        List<Suspect> suspects = mBoard.getSuspects();
+        List<Weapon> weapons = mBoard.getWeapons();
+
+        int[] state = new int[GameState.TOKEN_LOCATIONS + suspects.size() + weapons.size()];
+        state[GameState.FLAGS] = getTurnFlags()
+                | (mStarted ? GameState.FLAG_STARTED : 0)
+                | (mFinished ? GameState.FLAG_FINISHED : 0);
+        state[GameState.REMAINING_MOVES] = mTurnRemainingMoves;
+        state[GameState.CURRENT_PLAYER] = mCurrentPlayer == null ? -1 : mPlayers.indexOf(mCurrentPlayer);
+        state[GameState.LOG_SIZE] = mLog.size();
+
+        int activePlayers = 0;
+        for (int i = 0; i < mPlayers.size(); i++) {
+            if (mActivePlayers == null || mActivePlayers.contains(mPlayers.get(i))) {
+                activePlayers |= 1 << i;
+            }
+        }
+        state[GameState.ACTIVE_PLAYERS] = activePlayers;
+
+        int i = GameState.TOKEN_LOCATIONS;
+        for (Suspect suspect : suspects) {
+            state[i++] = suspect.getLocation() == null ? -1 : graph.getNode(suspect.getLocation());
+        }
+        for (Weapon weapon : weapons) {
+            state[i++] = graph.getNode(weapon.getLocation());
+        }
+
+        mState = new GameState(++mStateVersion, suspects.size(), state, mStatePlayerSuspects, mStateHands, mStateUndistributedCards);
+    }
+
+    /**
+     * Appends a frame to the undo journal recording the turn state before an action.
+     *
+     * @param knowledge whether the action may modify the knowledge of players
+     * @param tokens tokens that the action may move
+     */
+    private void journal(boolean knowledge, Token... tokens) {
+        int size = JOURNAL_FRAME_HEADER + (knowledge ? mPlayers.size() : 0) + tokens.length + 1;
+        if (mJournalSize + size > mJournal.length) {
+            mJournal = Arrays.copyOf(mJournal, Math.max(mJournal.length * 2, mJournalSize + size));
+        }
+
+        LocationGraph graph = mBoard.getLocationGraph();
+        int start = mJournalSize;
+
+        // Turn states
+        mJournal[mJournalSize++] = getTurnFlags() | (knowledge ? FLAG_KNOWLEDGE : 0);
+        mJournal[mJournalSize++] = mTurnRemainingMoves;
+        mJournal[mJournalSize++] = graph.getNode(mCurrentPlayerLocation);
+        mJournal[mJournalSize++] = mTurnQuestionSuggestion == null ? -1 :
+                mTurnQuestionSuggestion.suspect.getId()
+                        | mTurnQuestionSuggestion.weapon.getId() << 8
+                        | mTurnQuestionSuggestion.room.getId() << 16;
+        mJournal[mJournalSize++] = mTurnQuestionCardHolder == null ? -1 : mPlayers.indexOf(mTurnQuestionCardHolder);
+        mJournal[mJournalSize++] = mLog.size();
+
+        // Knowledge of all players
+        if (knowledge) {
+            for (Player player : mPlayers) {
+                mJournal[mJournalSize++] = player.getKnowledge().mark();
+            }
+        }
+
+        // Token locations, packed as card id, location node and whether a suspect has moved since their last turn
+        for (Token token : tokens) {
+            boolean moved = token instanceof Suspect && ((Suspect) token).getMovedSinceLastTurn();
+            mJournal[mJournalSize++] = token.getId()
+                    | graph.getNode(token.getLocation()) << 8
+                    | (moved ? 1 : 0) << 24;
+        }
+
+        mJournal[mJournalSize++] = start;
+    }
+
     /**
      * Chooses a random solution and distributes remaining cards to players.
      *
@@ -674,9 +1279,9 @@ public class Game {
      */
     private void setupCards() {
         // Create a random solution
-        mSolution = new Suggestion(randomCard(mBoard.getSuspects()),
-                randomCard(mBoard.getWeapons()),
-                randomCard(mBoard.getRooms()));
+        mSolution = new Suggestion(RandomUtils.choose(mBoard.getSuspects(), mRandom),
+                RandomUtils.choose(mBoard.getWeapons(), mRandom),
+                RandomUtils.choose(mBoard.getRooms(), mRandom));
 
         // Cards to be distributed to players
         List<Card> distributeCards = mBoard.getCardsModifiable();
@@ -685,13 +1290,17 @@ public class Game {
         distributeCards.removeAll(mSolution.asList());
 
         // Shuffle cards
-        Collections.shuffle(distributeCards);
+        RandomUtils.shuffle(distributeCards, mRandom);
 
         // Place cards that will not divide evenly into the undistributed cards pile
         mUndistributedCards = distributeCards.stream()
                 .limit(distributeCards.size() % mPlayers.size())
                 .collect(Collectors.toList());
 
+        for (Card card : mUndistributedCards) {
+            mUndistributedCardsMask |= card.getMask();
+        }
+
         // Remove undistributed cards from cards to be distributed
         distributeCards.removeAll(mUndistributedCards);
 
@@ -704,9 +1313,23 @@ public class Game {
         for (Player player : mPlayers) {
             player.initiateKnowledge(mBoard.getCards(), mPlayers, mUndistributedCards);
         }
-    }
 
-    private static <C extends Card> C randomCard(List<C> list) {
-        return list.get(sRandom.nextInt(list.size()));
+        // Find the first player to respond to every suggestion from every player
+        int players = mPlayers.size();
+        mResponders = new byte[players * Suggestion.CODE_COUNT];
+        for (int asker = 0; asker < players; asker++) {
+            for (int code = 0; code < Suggestion.CODE_COUNT; code++) {
+                int responder = -1;
+                for (int i = 1; i < players; i++) {
+                    int player = (asker + i) % players;
+                    if ((mPlayers.get(player).getHand() & Suggestion.getCardMask(code)) != 0) {
+                        responder = player;
+                        break;
+                    }
+                }
+
+                mResponders[asker * Suggestion.CODE_COUNT + code] = (byte) responder;
+            }
+        }
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Host for many concurrent games, sharded across single-threaded event loops.
+ *
+ * Every game is identified by an id and confined to the event loop chosen by hashing it, so all events of a game
+ * are processed by the same thread and game state is never shared or locked. Commands reach a game through the
+ * bounded mailbox of its {@link GameSession}, and every change of state is published to the host's listener as a
+ * {@link GameState} snapshot.
+ */
+public class GameHost implements AutoCloseable {
+    private final ExecutorService[] mShards;
+    private final int mMailboxCapacity;
+    private final Listener mListener;
+
+    private final Map<Long, GameSession> mSessions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a host with one event loop per available processor.
+     *
+     * @param listener listener notified of changes of state of every game
+     */
+    public GameHost(Listener listener) {
+        this(Runtime.getRuntime().availableProcessors(), GameSession.DEFAULT_MAILBOX_CAPACITY, listener);
+    }
+
+    /**
+     * Constructs a host with the specified number of event loops.
+     *
+     * @param shards number of event loop threads
+     * @param mailboxCapacity maximum number of commands waiting to be processed by each game
+     * @param listener listener notified of changes of state of every game
+     */
+    public GameHost(int shards, int mailboxCapacity, Listener listener) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least 1 shard is required");
+        }
+
+        mShards = new ExecutorService[shards];
+        for (int i = 0; i < shards; i++) {
+            String name = "game-shard-" + i;
+            mShards[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        mMailboxCapacity = mailboxCapacity;
+        mListener = listener;
+    }
+
+    /**
+     * Hands a game over to the host and starts it.
+     *
+     * The game must have had its players added, and must not be accessed directly afterwards.
+     *
+     * @param id the id of the game
+     * @param game the game
+     * @throws IllegalArgumentException If a game with the same id is already hosted.
+     */
+    public void addGame(long id, Game game) {
+        GameSession session = new GameSession(game, getShard(id), new GameSession.Listener() {
+            @Override
+            public void onStateChanged(GameSession session, GameState state) {
+                mListener.onStateChanged(id, session, state);
+            }
+
+            @Override
+            public void onMoveRejected(GameSession session, int move) {
+                mListener.onMoveRejected(id, move);
+            }
+
+            @Override
+            public void onError(GameSession session, int move, RuntimeException e) {
+                mListener.onError(id, move, e);
+            }
+        }, mMailboxCapacity);
+
+        if (mSessions.putIfAbsent(id, session) != null) {
+            throw new IllegalArgumentException("Game " + id + " is already hosted");
+        }
+
+        session.start();
+    }
+
+    /**
+     * Stops hosting a game, events that are already queued may still be processed.
+     *
+     * @param id the id of the game
+     */
+    public void removeGame(long id) {
+        mSessions.remove(id);
+    }
+
+    /**
+     * Returns the number of hosted games.
+     *
+     * @return the number of hosted games
+     */
+    public int getGameCount() {
+        return mSessions.size();
+    }
+
+    /**
+     * Sends a command to a game.
+     *
+     * @param id the id of the game
+     * @param move the encoded move
+     * @return {@code false} if the game is not hosted or its mailbox is full.
+     */
+    public boolean submit(long id, int move) {
+        GameSession session = mSessions.get(id);
+        return session != null && session.submit(move);
+    }
+
+    /**
+     * Returns the latest snapshot of the state of a game.
+     *
+     * @param id the id of the game
+     * @return the latest snapshot, or {@code null} if the game is not hosted
+     */
+    public GameState getState(long id) {
+        GameSession session = mSessions.get(id);
+        return session == null ? null : session.getState();
+    }
+
+    /**
+     * Stops all event loops, games that have not finished are abandoned.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService shard : mShards) {
+            shard.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the event loop of a game.
+     *
+     * @param id the id of the game
+     * @return the executor confining the game
+     */
+    private ExecutorService getShard(long id) {
+        // Spread sequential ids across shards
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return mShards[(int) Long.remainderUnsigned(hash ^ (hash >>> 32), mShards.length)];
+    }
+
+    /**
+     * Listener notified of the progress of hosted games, called from the event loop of the game.
+     */
+    public interface Listener {
+        /**
+         * Called after a command has been applied to a game.
+         *
+         * The session can be used to list legal moves and submit further commands while handling the call.
+         *
+         * @param id the id of the game
+         * @param session the session hosting the game
+         * @param state the state of the game after the command
+         */
+        void onStateChanged(long id, GameSession session, GameState state);
+
+        /**
+         * Called when a command is not legal in the current phase of the turn of a game.
+         *
+         * @param id the id of the game
+         * @param move the rejected move
+         */
+        default void onMoveRejected(long id, int move) {}
+
+        /**
+         * Called when an exception is thrown while applying a command to a game or notifying the listener.
+         *
+         * @param id the id of the game
+         * @param move the command being applied
+         * @param e the exception that was thrown
+         */
+        default void onError(long id, int move, RuntimeException e) {}
+    }
+}
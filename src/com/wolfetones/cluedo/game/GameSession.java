@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking host for a single {@link Game}, driven by input events.
+ *
+ * Events are encoded {@link Move}s that can be submitted from any thread. They are queued in a bounded mailbox and
+ * applied to the game in order by a task on the session's {@link Executor}, with at most one task running per
+ * session at a time. A session never blocks while waiting for input, so many sessions can share a small thread
+ * pool.
+ *
+ * The turn advances through the phases of {@link Game#getLegalMoves()}: choosing an action, moving, waiting for a
+ * question response and ending the turn. Events that are not legal in the current phase are rejected without
+ * modifying the game. The listener is notified from the executor after every event with the latest
+ * {@link GameState}. Exceptions thrown while applying an event, including by the listener, are reported to the
+ * listener and do not stop later events from being processed.
+ */
+public class GameSession {
+    /** Default number of events that can be waiting to be processed */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 64;
+
+    private final Game mGame;
+    private final Executor mExecutor;
+    private final Listener mListener;
+
+    /** Events waiting to be processed */
+    private final BlockingQueue<Integer> mEvents;
+    /** Whether a task processing events has been scheduled */
+    private final AtomicBoolean mScheduled = new AtomicBoolean(false);
+
+    /** Whether the game has been started, only accessed by processing tasks */
+    private boolean mStarted = false;
+
+    /**
+     * Constructs a new session for a game that has had its players added.
+     *
+     * The game must not be accessed directly once the session has been started.
+     *
+     * @param game the game to host
+     * @param executor executor on which events are processed
+     * @param listener listener notified of changes of state
+     */
+    public GameSession(Game game, Executor executor, Listener listener) {
+        this(game, executor, listener, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    /**
+     * Constructs a new session for a game that has had its players added, with a mailbox of the specified size.
+     *
+     * @param game the game to host
+     * @param executor executor on which events are processed
+     * @param listener listener notified of changes of state
+     * @param mailboxCapacity maximum number of events waiting to be processed
+     */
+    public GameSession(Game game, Executor executor, Listener listener, int mailboxCapacity) {
+        mGame = game;
+        mExecutor = executor;
+        mListener = listener;
+        mEvents = new ArrayBlockingQueue<>(mailboxCapacity);
+    }
+
+    /**
+     * Starts the game and the first turn on the session's executor.
+     *
+     * @throws IllegalStateException If the mailbox is full.
+     */
+    public void start() {
+        if (!submit(Move.of(Move.END_TURN))) {
+            throw new IllegalStateException("Mailbox is full");
+        }
+    }
+
+    /**
+     * Queues an event to be applied to the game.
+     *
+     * @param move the encoded move
+     * @return {@code false} if the mailbox is full and the event was dropped.
+     */
+    public boolean submit(int move) {
+        if (!mEvents.offer(move)) {
+            return false;
+        }
+
+        schedule();
+
+        return true;
+    }
+
+    /**
+     * Returns the latest snapshot of the game state.
+     *
+     * @return the latest snapshot of the game state
+     */
+    public GameState getState() {
+        return mGame.getState();
+    }
+
+    /**
+     * Returns the moves that are legal in the current phase of the turn.
+     *
+     * Must only be called from the listener, while the session is processing events.
+     *
+     * @return the encoded legal moves
+     */
+    public int[] getLegalMoves() {
+        return mGame.getLegalMoves();
+    }
+
+    /**
+     * Schedules a task to process events, unless one has already been scheduled.
+     */
+    private void schedule() {
+        if (mScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(this::processEvents);
+        }
+    }
+
+    /**
+     * Processes all queued events.
+     */
+    private void processEvents() {
+        try {
+            Integer move;
+            while ((move = mEvents.poll()) != null) {
+                try {
+                    process(move);
+                } catch (RuntimeException e) {
+                    mListener.onError(this, move, e);
+                }
+            }
+        } finally {
+            // Always allow further tasks to be scheduled, even if the listener throws
+            mScheduled.set(false);
+
+            // Events may have been submitted after the queue was found to be empty
+            if (!mEvents.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Applies a single event to the game.
+     *
+     * @param move the encoded move
+     */
+    private void process(int move) {
+        if (!mStarted) {
+            // Only the event queued by start() can be processed before the game has started
+            if (Move.getType(move) != Move.END_TURN) {
+                mListener.onMoveRejected(this, move);
+                return;
+            }
+
+            mStarted = true;
+            mGame.start();
+            mGame.nextTurn();
+        } else if (mGame.isLegalMove(move)) {
+            mGame.makeMove(move);
+        } else {
+            mListener.onMoveRejected(this, move);
+            return;
+        }
+
+        mListener.onStateChanged(this, mGame.getState());
+    }
+
+    /**
+     * Listener notified of the progress of a session.
+     */
+    public interface Listener {
+        /**
+         * Called after an event has been applied to the game.
+         *
+         * @param session the session
+         * @param state the state of the game after the event
+         */
+        void onStateChanged(GameSession session, GameState state);
+
+        /**
+         * Called when an event is not legal in the current phase of the turn.
+         *
+         * @param session the session
+         * @param move the rejected move
+         */
+        default void onMoveRejected(GameSession session, int move) {}
+
+        /**
+         * Called when an exception is thrown while applying an event to the game or notifying the listener.
+         *
+         * @param session the session
+         * @param move the move being applied
+         * @param e the exception that was thrown
+         */
+        default void onError(GameSession session, int move, RuntimeException e) {}
+    }
+}
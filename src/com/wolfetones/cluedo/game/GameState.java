@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+/**
+ * Immutable snapshot of the state of a {@link Game}.
+ *
+ * Snapshots are published by the game after every change of state, allowing other threads to read a consistent
+ * state without accessing the game itself. All values are stored as primitives:
+ * <ul>
+ *     <li>Players and tokens are identified by their index in the game's player list and the board's suspect and
+ *     weapon lists.</li>
+ *     <li>Token locations are {@link com.wolfetones.cluedo.board.LocationGraph} nodes, identifying either a
+ *     corridor tile or a room.</li>
+ *     <li>Sets of cards are bitmasks of card ids, see {@link com.wolfetones.cluedo.card.Card#getId()}.</li>
+ * </ul>
+ *
+ * Hands do not change once the game has started, so they are shared between snapshots.
+ */
+public final class GameState {
+    /** Game has started */
+    static final int FLAG_STARTED = 1 << 8;
+    /** Game has finished */
+    static final int FLAG_FINISHED = 1 << 9;
+
+    /*
+     * Layout of the state array
+     */
+    static final int FLAGS = 0;
+    static final int REMAINING_MOVES = 1;
+    static final int CURRENT_PLAYER = 2;
+    static final int ACTIVE_PLAYERS = 3;
+    static final int LOG_SIZE = 4;
+    static final int TOKEN_LOCATIONS = 5;
+
+    private final int mVersion;
+
+    /** Number of suspect tokens, weapon tokens follow them in the token locations */
+    private final int mSuspectCount;
+
+    /** Turn and game states, see layout constants */
+    private final int[] mState;
+
+    /** Index of each player's suspect */
+    private final int[] mPlayerSuspects;
+    /** Cards held by each player */
+    private final int[] mHands;
+    /** Cards visible to all players */
+    private final int mUndistributedCards;
+
+    /**
+     * Constructs a snapshot, taking ownership of the arrays, which must not be modified afterwards.
+     *
+     * @param version the number of changes of state of the game
+     * @param suspectCount number of suspect tokens
+     * @param state turn and game states, see layout constants
+     * @param playerSuspects index of each player's suspect
+     * @param hands cards held by each player
+     * @param undistributedCards cards visible to all players
+     */
+    GameState(int version, int suspectCount, int[] state, int[] playerSuspects, int[] hands, int undistributedCards) {
+        mVersion = version;
+        mSuspectCount = suspectCount;
+        mState = state;
+        mPlayerSuspects = playerSuspects;
+        mHands = hands;
+        mUndistributedCards = undistributedCards;
+    }
+
+    /**
+     * Returns the number of changes of state the game had gone through when this snapshot was taken.
+     *
+     * @return the version of the state
+     */
+    public int getVersion() {
+        return mVersion;
+    }
+
+    /**
+     * Returns {@code true} if the game had started.
+     *
+     * @return {@code true} if the game had started.
+     */
+    public boolean isStarted() {
+        return (mState[FLAGS] & FLAG_STARTED) != 0;
+    }
+
+    /**
+     * Returns {@code true} if the game had finished.
+     *
+     * @return {@code true} if the game had finished.
+     */
+    public boolean isFinished() {
+        return (mState[FLAGS] & FLAG_FINISHED) != 0;
+    }
+
+    /**
+     * Returns the number of players in the game, including eliminated players.
+     *
+     * @return the number of players in the game.
+     */
+    public int getPlayerCount() {
+        return mPlayerSuspects.length;
+    }
+
+    /**
+     * Returns the index of the suspect played by a player.
+     *
+     * @param player index of the player
+     * @return the index of the player's suspect
+     */
+    public int getPlayerSuspect(int player) {
+        return mPlayerSuspects[player];
+    }
+
+    /**
+     * Returns the cards held by a player.
+     *
+     * @param player index of the player
+     * @return bitmask of the cards held by the player
+     */
+    public int getHand(int player) {
+        return mHands[player];
+    }
+
+    /**
+     * Returns the cards that were not distributed to any player.
+     *
+     * @return bitmask of the undistributed cards
+     */
+    public int getUndistributedCards() {
+        return mUndistributedCards;
+    }
+
+    /**
+     * Returns {@code true} if a player had not been eliminated.
+     *
+     * @param player index of the player
+     * @return {@code true} if the player had not been eliminated.
+     */
+    public boolean isActive(int player) {
+        return (mState[ACTIVE_PLAYERS] & (1 << player)) != 0;
+    }
+
+    /**
+     * Returns the index of the player whose turn it was.
+     *
+     * @return the index of the current player, or {@code -1} if the first turn had not started
+     */
+    public int getCurrentPlayer() {
+        return mState[CURRENT_PLAYER];
+    }
+
+    /**
+     * Returns the location of a suspect's token.
+     *
+     * @param suspect index of the suspect
+     * @return the location graph node of the token
+     */
+    public int getSuspectLocation(int suspect) {
+        return mState[TOKEN_LOCATIONS + suspect];
+    }
+
+    /**
+     * Returns the location of a weapon's token.
+     *
+     * @param weapon index of the weapon
+     * @return the location graph node of the token
+     */
+    public int getWeaponLocation(int weapon) {
+        return mState[TOKEN_LOCATIONS + mSuspectCount + weapon];
+    }
+
+    /**
+     * Returns the number of entries in the game log, entries past it were added after the snapshot was taken.
+     *
+     * @return the size of the log
+     */
+    public int getLogSize() {
+        return mState[LOG_SIZE];
+    }
+
+    /**
+     * Returns the number of moves remaining in the current player's turn.
+     *
+     * @return the number of moves remaining in the current player's turn.
+     */
+    public int getTurnRemainingMoves() {
+        return mState[REMAINING_MOVES];
+    }
+
+    /**
+     * Returns {@code true} if the current player was able to roll the dice.
+     *
+     * @return {@code true} if the current player was able to roll the dice.
+     */
+    public boolean canRollDice() {
+        return (mState[FLAGS] & (Game.FLAG_MOVEMENT_COMPLETE | Game.FLAG_CAN_ROLL_DICE)) == Game.FLAG_CAN_ROLL_DICE;
+    }
+
+    /**
+     * Returns {@code true} if the current player was able to use a secret passage.
+     *
+     * @return {@code true} if the current player was able to use a secret passage.
+     */
+    public boolean canUsePassage() {
+        return (mState[FLAGS] & (Game.FLAG_MOVEMENT_COMPLETE | Game.FLAG_CAN_USE_PASSAGE)) == Game.FLAG_CAN_USE_PASSAGE;
+    }
+
+    /**
+     * Returns {@code true} if the current player was able to pose a question.
+     *
+     * @return {@code true} if the current player was able to pose a question.
+     */
+    public boolean canPoseQuestion() {
+        return (mState[FLAGS] & Game.FLAG_CAN_POSE_QUESTION) != 0;
+    }
+
+    /**
+     * Returns {@code true} if the current player was able to make a final accusation.
+     *
+     * @return {@code true} if the current player was able to make a final accusation.
+     */
+    public boolean canMakeFinalAccusation() {
+        return (mState[FLAGS] & Game.FLAG_CAN_MAKE_FINAL_ACCUSATION) != 0;
+    }
+
+    /**
+     * Returns {@code true} if the current player was able to stop moving.
+     *
+     * @return {@code true} if the current player was able to stop moving.
+     */
+    public boolean canStopMoving() {
+        return (mState[FLAGS] & Game.FLAG_HAS_MOVED) != 0 && mState[REMAINING_MOVES] > 0;
+    }
+
+    /**
+     * Returns {@code true} if the current player's turn was finished.
+     *
+     * @return {@code true} if the current player's turn was finished.
+     */
+    public boolean isTurnFinished() {
+        return (mState[FLAGS] & Game.FLAG_TURN_FINISHED) != 0;
+    }
+}
@@ -25,46 +25,322 @@
 package com.wolfetones.cluedo.game;
 
 import com.wolfetones.cluedo.card.Card;
+import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.card.Suspect;
+import com.wolfetones.cluedo.card.Weapon;
 
 import java.util.*;
 
 /**
  * Player knowledge of who is holding which cards.
+ *
+ * Knowledge is stored densely, using card ids as bit positions: a bitmask of cards for every value and other
+ * player, a bitmask of fixed cards for every other player, and a 4 bit hint nibble for every card and player.
+ * {@link Knowledge#get(Card)} and {@link Status} are views over these arrays.
+ *
+ * Besides the statuses, knowledge records constraints that a player is holding at least one of a set of cards,
+ * such as when a player shows a card to someone else. New facts are propagated to a fixpoint using these
+ * constraints, the hand sizes of players, and the fact that the solution holds exactly one card of each type.
  */
 public class Knowledge {
-    private Map<Card, Map<Player, Status>> mCardPlayerStatuses = new HashMap<>();
+    private static final Value[] VALUES = Value.values();
+
+    /** Number of hints per status */
+    private static final int HINTS = 4;
+    /** Number of hint nibbles packed into each entry of the hints array */
+    private static final int HINTS_PER_LONG = Long.SIZE / HINTS;
+
+    /** Value stored in journal entries recording the addition of a constraint */
+    private static final int JOURNAL_CONSTRAINT = 0b111;
+
+    /** Number of card types, suspects, weapons and rooms */
+    static final int TYPE_COUNT = 3;
+
+    /** Other players, in order of play after the player */
+    private final Player[] mPlayers;
+    /** Number of cards in the game */
+    private final int mCardCount;
+    /** Cards of each type, suspects, weapons and rooms */
+    private final int[] mTypes;
+
+    /** Cards with each value for each player, {@code [value * players + player]} */
+    private final int[] mValues;
+    /** Cards whose value is fixed for each player */
+    private final int[] mFixed;
+    /** Hints of each status, a nibble for every {@code card * players + player} */
+    private final long[] mHints;
+
+    /** Number of cards dealt to each player */
+    private final int[] mHandSizes;
+    /** Number of cards each player is known to be holding */
+    private final int[] mHeldCounts;
+    /** Number of cards each player is known not to be holding */
+    private final int[] mNotHeldCounts;
+
+    /**
+     * Pending status updates, packed like journal entries with the fixed flag set as requested.
+     *
+     * Deductions are queued here rather than applied recursively, see {@link Knowledge#propagate()}.
+     */
+    private int[] mWorklist = new int[64];
+    private int mWorklistSize = 0;
+
+    /** Cards of each constraint, at least one of which is held by the constraint's player */
+    private int[] mConstraintCards;
+    /** Player index of each constraint */
+    private int[] mConstraintPlayers;
+    private int mConstraintCount;
+
+    /**
+     * Constraints watching each status, as linked lists of watches.
+     *
+     * A constraint watches the statuses of each of its cards for its player, and is only reevaluated when one of
+     * them is fixed. {@code mWatchHeads[card * players + player]} is the most recent watch of the status,
+     * each watch links to the next watch of the same status and refers to its constraint.
+     */
+    private final int[] mWatchHeads;
+    private int[] mWatchNext;
+    private int[] mWatchConstraints;
+    private int mWatchCount;
+
+    /**
+     * Previous states of modified statuses, most recent last.
+     *
+     * Each entry packs the {@code card * players + player} index of the status with its previous value and fixed
+     * flag, see {@link Knowledge#rollback(int)}.
+     */
+    private int[] mJournal = new int[64];
+    private int mJournalSize = 0;
+
+    /** Number of changes made to values and constraints, see {@link Knowledge#getModificationCount()} */
+    private int mModificationCount = 0;
 
     public Knowledge(Player player, PlayerList players, List<Card> cards, List<Card> undistributedCards) {
-        // Fill card player map
+        mPlayers = new Player[players.size() - 1];
+        Iterator<Player> iterator = players.iteratorStartingAfter(player);
+        for (int i = 0; iterator.hasNext(); i++) {
+            mPlayers[i] = iterator.next();
+        }
+
+        mCardCount = cards.size();
+        mTypes = new int[TYPE_COUNT];
         for (Card card : cards) {
-            Map<Player, Status> playerStatusMap = new HashMap<>();
-            Iterator<Player> iterator = players.iteratorStartingAfter(player);
-            while (iterator.hasNext()) {
-            Player p = iterator.next();
-                Status status = new Status();
-                playerStatusMap.put(p, status);
-
-                if (undistributedCards.contains(card)) {
-                    status.value = Value.Undistributed;
-                    status.fixed = true;
-                } else if (player.hasCard(card)) {
-                    status.value = Value.Self;
-                    status.fixed = true;
-                }
+            if (card instanceof Suspect) {
+                mTypes[0] |= card.getMask();
+            } else if (card instanceof Weapon) {
+                mTypes[1] |= card.getMask();
+            } else if (card instanceof Room) {
+                mTypes[2] |= card.getMask();
             }
+        }
+
+        mValues = new int[VALUES.length * mPlayers.length];
+        mFixed = new int[mPlayers.length];
+        mHints = new long[(mCardCount * mPlayers.length + HINTS_PER_LONG - 1) / HINTS_PER_LONG];
+        mHandSizes = new int[mPlayers.length];
+        mHeldCounts = new int[mPlayers.length];
+        mNotHeldCounts = new int[mPlayers.length];
+
+        mConstraintCards = new int[16];
+        mConstraintPlayers = new int[16];
+        mWatchHeads = new int[mCardCount * mPlayers.length];
+        Arrays.fill(mWatchHeads, -1);
+        mWatchNext = new int[48];
+        mWatchConstraints = new int[48];
+
+        // Cards that are visible to the player are known for everyone
+        int undistributed = 0;
+        for (Card card : undistributedCards) {
+            undistributed |= card.getMask();
+        }
+        for (int p = 0; p < mPlayers.length; p++) {
+            mValues[Value.Undistributed.ordinal() * mPlayers.length + p] = undistributed;
+            mValues[Value.Self.ordinal() * mPlayers.length + p] = player.getHand() & ~undistributed;
+            mFixed[p] = undistributed | player.getHand();
 
-            mCardPlayerStatuses.put(card, playerStatusMap);
+            // Hand sizes are public, every player can count the cards in front of the others
+            mHandSizes[p] = Integer.bitCount(mPlayers[p].getHand());
+            mNotHeldCounts[p] = Integer.bitCount(mFixed[p]);
         }
     }
 
+    /**
+     * Constructs a copy of the specified knowledge, without its journal.
+     *
+     * @param knowledge the knowledge to copy
+     */
+    public Knowledge(Knowledge knowledge) {
+        mPlayers = knowledge.mPlayers;
+        mCardCount = knowledge.mCardCount;
+        mTypes = knowledge.mTypes;
+        mValues = knowledge.mValues.clone();
+        mFixed = knowledge.mFixed.clone();
+        mHints = knowledge.mHints.clone();
+        mHandSizes = knowledge.mHandSizes;
+        mHeldCounts = knowledge.mHeldCounts.clone();
+        mNotHeldCounts = knowledge.mNotHeldCounts.clone();
+
+        mConstraintCards = knowledge.mConstraintCards.clone();
+        mConstraintPlayers = knowledge.mConstraintPlayers.clone();
+        mConstraintCount = knowledge.mConstraintCount;
+        mWatchHeads = knowledge.mWatchHeads.clone();
+        mWatchNext = knowledge.mWatchNext.clone();
+        mWatchConstraints = knowledge.mWatchConstraints.clone();
+        mWatchCount = knowledge.mWatchCount;
+    }
+
     /**
      * Returns the player status map for the specified card.
      *
+     * The statuses are views of this knowledge, reflecting later changes.
+     *
      * @param card the card of interest
      * @return the player status map for the specified card
      */
     public Map<Player, Status> get(Card card) {
-        return mCardPlayerStatuses.get(card);
+        Map<Player, Status> statuses = new LinkedHashMap<>();
+        for (int p = 0; p < mPlayers.length; p++) {
+            statuses.put(mPlayers[p], new Status(card.getId(), p));
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Returns the value of the status of the specified player for the specified card.
+     *
+     * @param card the card of interest
+     * @param player the player of interest
+     * @return the value of the status, or {@code null} if it has not been set
+     */
+    public Value getValue(Card card, Player player) {
+        return getValue(card.getId(), getPlayerIndex(player));
+    }
+
+    /**
+     * Returns the cards for which the specified player's status has the specified value.
+     *
+     * @param player the player of interest
+     * @param value the value of interest
+     * @return a bitmask of the ids of the cards
+     */
+    public int getCards(Player player, Value value) {
+        return mValues[value.ordinal() * mPlayers.length + getPlayerIndex(player)];
+    }
+
+    /**
+     * Returns the cards for which any player's status has the specified value.
+     *
+     * @param value the value of interest
+     * @return a bitmask of the ids of the cards
+     */
+    public int getCards(Value value) {
+        int cards = 0;
+        for (int p = 0; p < mPlayers.length; p++) {
+            cards |= mValues[value.ordinal() * mPlayers.length + p];
+        }
+
+        return cards;
+    }
+
+    /**
+     * Returns the number of other players.
+     *
+     * @return the number of other players
+     */
+    int getPlayerCount() {
+        return mPlayers.length;
+    }
+
+    /**
+     * Returns the other player with the specified index, in order of play after the player.
+     *
+     * @param player the index of the player
+     * @return the player with the specified index
+     */
+    Player getPlayer(int player) {
+        return mPlayers[player];
+    }
+
+    /**
+     * Returns the number of cards dealt to the other player with the specified index.
+     *
+     * @param player the index of the player
+     * @return the number of cards dealt to the player
+     */
+    int getHandSize(int player) {
+        return mHandSizes[player];
+    }
+
+    /**
+     * Returns the cards the other player with the specified index is certainly holding or not holding.
+     *
+     * @param player the index of the player
+     * @param holding whether to return the cards held or not held by the player
+     * @return a bitmask of the ids of the cards
+     */
+    int getFixedCards(int player, boolean holding) {
+        int held = mValues[Value.Holding.ordinal() * mPlayers.length + player] & mFixed[player];
+
+        return holding ? held : mFixed[player] & ~held;
+    }
+
+    /**
+     * Returns the cards of the specified type.
+     *
+     * @param type the type, {@code 0} for suspects, {@code 1} for weapons and {@code 2} for rooms
+     * @return a bitmask of the ids of the cards
+     */
+    int getTypeCards(int type) {
+        return mTypes[type];
+    }
+
+    /**
+     * Returns the number of cards in the game.
+     *
+     * @return the number of cards in the game
+     */
+    int getCardCount() {
+        return mCardCount;
+    }
+
+    /**
+     * Returns the number of changes made to values and constraints so far, allowing results computed from this
+     * knowledge to be reused until it changes.
+     *
+     * @return the number of changes made
+     */
+    int getModificationCount() {
+        return mModificationCount;
+    }
+
+    /**
+     * Returns the number of recorded constraints, see {@link Knowledge#setHoldingAny(int, Player)}.
+     *
+     * @return the number of constraints
+     */
+    int getConstraintCount() {
+        return mConstraintCount;
+    }
+
+    /**
+     * Returns the cards of the constraint with the specified index, at least one of which is held by its player.
+     *
+     * @param constraint the index of the constraint
+     * @return a bitmask of the ids of the cards
+     */
+    int getConstraintCards(int constraint) {
+        return mConstraintCards[constraint];
+    }
+
+    /**
+     * Returns the index of the player of the constraint with the specified index.
+     *
+     * @param constraint the index of the constraint
+     * @return the index of the player
+     */
+    int getConstraintPlayer(int constraint) {
+        return mConstraintPlayers[constraint];
     }
 
     /**
@@ -78,10 +354,56 @@ public class Knowledge {
      * @param player the player that is holding/not holding the card
      * @param holding whether the player is holding the card
      *
-     * @see Knowledge#setValue(Card, Player, Value, boolean)
+     * @see Knowledge#setValue(int, int, Value, boolean)
      */
     void setHolding(Card card, Player player, boolean holding) {
-        setValue(card, player, holding ? Value.Holding : Value.NotHolding, true);
+        setValue(card.getId(), getPlayerIndex(player), holding ? Value.Holding : Value.NotHolding, true);
+    }
+
+    /**
+     * Records that the specified player is holding at least one of the specified cards.
+     *
+     * To be used by {@link Game} only, for players that have shown one of the cards of a suggestion to someone else.
+     *
+     * The constraint is kept for the rest of the game, and the card is set to be held as soon as all other
+     * cards are known not to be held by the player.
+     *
+     * @param cards bitmask of the ids of the cards
+     * @param player the player that is holding one of the cards
+     */
+    void setHoldingAny(int cards, Player player) {
+        int p = getPlayerIndex(player);
+
+        // Record constraint addition to allow rollback
+        if (mJournalSize == mJournal.length) {
+            mJournal = Arrays.copyOf(mJournal, mJournalSize * 2);
+        }
+        mJournal[mJournalSize++] = JOURNAL_CONSTRAINT << 1;
+
+        // Add constraint
+        if (mConstraintCount == mConstraintCards.length) {
+            mConstraintCards = Arrays.copyOf(mConstraintCards, mConstraintCount * 2);
+            mConstraintPlayers = Arrays.copyOf(mConstraintPlayers, mConstraintCount * 2);
+        }
+        int constraint = mConstraintCount++;
+        mModificationCount++;
+        mConstraintCards[constraint] = cards;
+        mConstraintPlayers[constraint] = p;
+
+        // Watch the status of every card
+        for (int remaining = cards; remaining != 0; remaining &= remaining - 1) {
+            if (mWatchCount == mWatchNext.length) {
+                mWatchNext = Arrays.copyOf(mWatchNext, mWatchCount * 2);
+                mWatchConstraints = Arrays.copyOf(mWatchConstraints, mWatchCount * 2);
+            }
+            int cell = Integer.numberOfTrailingZeros(remaining) * mPlayers.length + p;
+            mWatchNext[mWatchCount] = mWatchHeads[cell];
+            mWatchConstraints[mWatchCount] = constraint;
+            mWatchHeads[cell] = mWatchCount++;
+        }
+
+        evaluateConstraint(constraint);
+        propagate();
     }
 
     /**
@@ -91,10 +413,10 @@ public class Knowledge {
      * @param player the player for which the status is being set
      * @param value the value being set
      *
-     * @see Knowledge#setValue(Card, Player, Value, boolean)
+     * @see Knowledge#setValue(int, int, Value, boolean)
      */
     public void setValue(Card card, Player player, Value value) {
-        setValue(card, player, value, false);
+        setValue(card.getId(), getPlayerIndex(player), value, false);
     }
 
     /**
@@ -102,52 +424,239 @@ public class Knowledge {
      *
      * If the value is fixed, it can no longer be modified.
      *
-     * @param card the card for which the status is being set
-     * @param player the player for which the status is being set
+     * Statuses that follow from the new value are deduced as well: a card held by one player is not held by the
+     * others, and once a player's hand is complete, either all of their remaining cards are held or none of them are.
+     * Deductions are processed from a worklist, and hand completion is detected with per player counters.
+     *
+     * @param card the id of the card for which the status is being set
+     * @param player the index of the player for which the status is being set
      * @param value the value being set
      * @param fixed whether to fix the value being set
      */
-    private void setValue(Card card, Player player, Value value, boolean fixed) {
-        Map<Player, Status> cardPlayerStatuses = mCardPlayerStatuses.get(card);
-        Status playerStatus = cardPlayerStatuses.get(player);
+    private void setValue(int card, int player, Value value, boolean fixed) {
+        queue(card * mPlayers.length + player, value, fixed);
+        propagate();
+    }
+
+    /**
+     * Applies all queued status updates, along with all updates that can be deduced from them.
+     */
+    private void propagate() {
+        for (int head = 0; head < mWorklistSize; head++) {
+            int entry = mWorklist[head];
+            int cell = entry >>> 4;
+            int card = cell / mPlayers.length;
+            int player = cell % mPlayers.length;
+            Value value = VALUES[((entry >>> 1) & 0b111) - 1];
+            boolean fixed = (entry & 1) != 0;
+
+            int mask = 1 << card;
+
+            // Don't modify fixed values
+            if ((mFixed[player] & mask) != 0) {
+                continue;
+            }
+
+            // Record previous state to allow rollback
+            if (mJournalSize == mJournal.length) {
+                mJournal = Arrays.copyOf(mJournal, mJournalSize * 2);
+            }
+            Value previous = getValue(card, player);
+            mJournal[mJournalSize++] = cell << 4 | (previous == null ? 0 : previous.ordinal() + 1) << 1;
+
+            // Set value
+            writeValue(card, player, value, fixed);
+
+            // Special case
+            if (value == Value.Holding) {
+                // Set all other entries to not holding
+                for (int p = 0; p < mPlayers.length; p++) {
+                    if (p == player) continue;
+                    queue(card * mPlayers.length + p, Value.NotHolding, fixed);
+                }
+            }
+
+            // Only certain values lead to further deductions
+            if (!fixed) continue;
+
+            // When all of a player's cards have been found, the other cards can be set to not held, and when all
+            // cards a player does not have have been found, the other cards must be held.
+            // Counters only reach the hand size once, so each rule fires at most once per player.
+            Value closure = null;
+            if (value == Value.Holding && mHeldCounts[player] == mHandSizes[player]) {
+                closure = Value.NotHolding;
+            } else if (value != Value.Holding && mNotHeldCounts[player] == mCardCount - mHandSizes[player]) {
+                closure = Value.Holding;
+            }
+            if (closure != null) {
+                for (int remaining = ~mFixed[player] & ((1 << mCardCount) - 1); remaining != 0; remaining &= remaining - 1) {
+                    queue(Integer.numberOfTrailingZeros(remaining) * mPlayers.length + player, closure, true);
+                }
+            }
+
+            // Constraints on a card that is not held may now have a single card left
+            if (value != Value.Holding) {
+                for (int watch = mWatchHeads[cell]; watch >= 0; watch = mWatchNext[watch]) {
+                    evaluateConstraint(mWatchConstraints[watch]);
+                }
+            }
+
+            // Solution may now be known
+            for (int type : mTypes) {
+                if ((type & mask) != 0) {
+                    evaluateSolution(type);
+                }
+            }
+        }
+
+        mWorklistSize = 0;
+    }
+
+    /**
+     * Queues a status update, see {@link Knowledge#propagate()}.
+     */
+    private void queue(int cell, Value value, boolean fixed) {
+        if (mWorklistSize == mWorklist.length) {
+            mWorklist = Arrays.copyOf(mWorklist, mWorklistSize * 2);
+        }
+        mWorklist[mWorklistSize++] = pack(cell, value, fixed);
+    }
 
-        // Don't modify fixed values
-        if (playerStatus.fixed) {
+    /**
+     * Queues the last card of a constraint to be held if all of its other cards are known not to be held.
+     *
+     * @param constraint the index of the constraint
+     */
+    private void evaluateConstraint(int constraint) {
+        int cards = mConstraintCards[constraint];
+        int player = mConstraintPlayers[constraint];
+
+        // Already satisfied
+        if ((cards & mValues[Value.Holding.ordinal() * mPlayers.length + player] & mFixed[player]) != 0) {
             return;
         }
 
-        // Set value
-        playerStatus.value = value;
-        playerStatus.fixed = fixed;
+        int open = cards & ~mFixed[player];
+        if (Integer.bitCount(open) == 1) {
+            queue(Integer.numberOfTrailingZeros(open) * mPlayers.length + player, Value.Holding, true);
+        }
+    }
+
+    /**
+     * Queues deductions following from the solution containing exactly one card of the specified type.
+     *
+     * If only one card of the type can be in the solution, nobody is holding it. If the solution card of the type
+     * is known, every other card of the type that is not visible is held by someone, so a card with a single
+     * possible holder is held by that player.
+     *
+     * @param type bitmask of the ids of all cards of the type
+     */
+    private void evaluateSolution(int type) {
+        if (mPlayers.length == 0) return;
+
+        // Visible cards are not in the solution
+        int visible = mValues[Value.Self.ordinal() * mPlayers.length] | mValues[Value.Undistributed.ordinal() * mPlayers.length];
+
+        int held = 0;
+        int notHeld = type;
+        for (int p = 0; p < mPlayers.length; p++) {
+            int fixedHolding = mValues[Value.Holding.ordinal() * mPlayers.length + p] & mFixed[p];
+            held |= fixedHolding;
+            notHeld &= mFixed[p] & ~fixedHolding;
+        }
+
+        int solution = notHeld & ~visible;
+        int possible = type & ~held & ~visible;
 
-        // Special case
-        if (value == Value.Holding) {
-            // Set all other entries to not holding
-            for (Player p : cardPlayerStatuses.keySet()) {
-                if (p == player) continue;
-                setValue(card, p, Value.NotHolding, fixed);
+        if (solution == 0) {
+            if (Integer.bitCount(possible) == 1) {
+                int card = Integer.numberOfTrailingZeros(possible);
+                for (int p = 0; p < mPlayers.length; p++) {
+                    queue(card * mPlayers.length + p, Value.NotHolding, true);
+                }
             }
 
-            // When all of a player's cards have been found, the other cards can be set to not held
-            if (fixed) {
-                int playerCards = mCardPlayerStatuses.size() / (cardPlayerStatuses.size() + 1);
+            return;
+        }
 
-                boolean foundAllCards = mCardPlayerStatuses.keySet().stream()
-                        .map(c -> mCardPlayerStatuses.get(c).get(player))
-                        .filter(Status::isFixed)
-                        .map(Status::getValue)
-                        .filter(Value.Holding::equals)
-                        .count() == playerCards;
+        for (int remaining = possible & ~solution; remaining != 0; remaining &= remaining - 1) {
+            int card = Integer.numberOfTrailingZeros(remaining);
 
-                if (foundAllCards) {
-                    for (Card c : mCardPlayerStatuses.keySet()) {
-                        setHolding(c, player, false);
-                    }
+            int holders = 0;
+            int holder = -1;
+            for (int p = 0; p < mPlayers.length; p++) {
+                if ((mFixed[p] & (1 << card)) == 0) {
+                    holders++;
+                    holder = p;
                 }
             }
+
+            if (holders == 1) {
+                queue(card * mPlayers.length + holder, Value.Holding, true);
+            }
+        }
+    }
+
+    private static int pack(int cell, Value value, boolean fixed) {
+        return cell << 4 | (value.ordinal() + 1) << 1 | (fixed ? 1 : 0);
+    }
+
+    /**
+     * Returns a mark identifying the current state, which can later be restored with {@link Knowledge#rollback(int)}.
+     *
+     * @return a mark identifying the current state
+     */
+    int mark() {
+        return mJournalSize;
+    }
+
+    /**
+     * Restores the values of all statuses modified since {@code mark} was returned by {@link Knowledge#mark()},
+     * and removes all constraints added since.
+     *
+     * Hints are not affected.
+     *
+     * @param mark the mark of the state to restore
+     */
+    void rollback(int mark) {
+        while (mJournalSize > mark) {
+            int entry = mJournal[--mJournalSize];
+
+            int cell = entry >>> 4;
+            int value = (entry >>> 1) & 0b111;
+
+            if (value == JOURNAL_CONSTRAINT) {
+                removeLastConstraint();
+                continue;
+            }
+            writeValue(cell / mPlayers.length, cell % mPlayers.length, value == 0 ? null : VALUES[value - 1], (entry & 1) != 0);
         }
     }
 
+    /**
+     * Removes the most recently added constraint and its watches.
+     */
+    private void removeLastConstraint() {
+        int constraint = --mConstraintCount;
+        mModificationCount++;
+        int cards = mConstraintCards[constraint];
+        int player = mConstraintPlayers[constraint];
+
+        // The constraint's watches are the most recent watch of each of its statuses
+        for (int remaining = cards; remaining != 0; remaining &= remaining - 1) {
+            int cell = Integer.numberOfTrailingZeros(remaining) * mPlayers.length + player;
+            mWatchHeads[cell] = mWatchNext[mWatchHeads[cell]];
+            mWatchCount--;
+        }
+    }
+
+    /**
+     * Discards all recorded states, invalidating any previously returned marks.
+     */
+    void clearJournal() {
+        mJournalSize = 0;
+    }
+
     /**
      * Toggles one of the 4 available hints on a specified card for a specified player.
      *
@@ -156,28 +665,108 @@ public class Knowledge {
      * @param hint
      */
     public void toggleHint(Card card, Player player, int hint) {
-        mCardPlayerStatuses.get(card).get(player).toggleHint(hint);
+        toggleHint(card.getId(), getPlayerIndex(player), hint);
+    }
+
+    private void toggleHint(int card, int player, int hint) {
+        int cell = card * mPlayers.length + player;
+        mHints[cell / HINTS_PER_LONG] ^= 1L << (cell % HINTS_PER_LONG * HINTS + hint);
+    }
+
+    private boolean getHint(int card, int player, int hint) {
+        int cell = card * mPlayers.length + player;
+        return (mHints[cell / HINTS_PER_LONG] & 1L << (cell % HINTS_PER_LONG * HINTS + hint)) != 0;
+    }
+
+    private Value getValue(int card, int player) {
+        int mask = 1 << card;
+        for (int v = 0; v < VALUES.length; v++) {
+            if ((mValues[v * mPlayers.length + player] & mask) != 0) {
+                return VALUES[v];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Replaces the value and fixed flag of a status, keeping the hand counters up to date.
+     */
+    private void writeValue(int card, int player, Value value, boolean fixed) {
+        int mask = 1 << card;
+
+        mModificationCount++;
+
+        if ((mFixed[player] & mask) != 0) {
+            if ((mValues[Value.Holding.ordinal() * mPlayers.length + player] & mask) != 0) {
+                mHeldCounts[player]--;
+            } else {
+                mNotHeldCounts[player]--;
+            }
+        }
+        if (fixed) {
+            if (value == Value.Holding) {
+                mHeldCounts[player]++;
+            } else {
+                mNotHeldCounts[player]++;
+            }
+        }
+
+        for (int v = 0; v < VALUES.length; v++) {
+            mValues[v * mPlayers.length + player] &= ~mask;
+        }
+        if (value != null) {
+            mValues[value.ordinal() * mPlayers.length + player] |= mask;
+        }
+
+        if (fixed) {
+            mFixed[player] |= mask;
+        } else {
+            mFixed[player] &= ~mask;
+        }
     }
 
+    int getPlayerIndex(Player player) {
+        for (int p = 0; p < mPlayers.length; p++) {
+            if (mPlayers[p] == player) {
+                return p;
+            }
+        }
+
+        throw new IllegalArgumentException("No knowledge of player " + player.getName());
+    }
+
+    /**
+     * View of the status of a single player for a single card.
+     */
     public class Status {
-        private Value value;
-        private boolean fixed = false;
-        private boolean[] hints = new boolean[4];
+        private final int card;
+        private final int player;
+
+        private Status(int card, int player) {
+            this.card = card;
+            this.player = player;
+        }
 
         public Value getValue() {
-            return value;
+            return Knowledge.this.getValue(card, player);
         }
 
         public boolean isFixed() {
-            return fixed;
+            return (mFixed[player] & (1 << card)) != 0;
         }
 
         public boolean[] getHints() {
+            boolean[] hints = new boolean[HINTS];
+            for (int hint = 0; hint < HINTS; hint++) {
+                hints[hint] = getHint(card, player, hint);
+            }
+
             return hints;
         }
 
         public void toggleHint(int hint) {
-            hints[hint] = !hints[hint];
+            Knowledge.this.toggleHint(card, player, hint);
         }
     }
 
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+/**
+ * Primitive encoding of the actions available to a player, as listed by {@link Game#getLegalMoves()}.
+ *
+ * Each move is an {@code int} with the type of the move in the top byte and its parameters in the lower bytes:
+ * <ul>
+ *     <li>{@link #ROLL_DICE}, {@link #USE_PASSAGE}, {@link #STOP_MOVING} and {@link #END_TURN} have no
+ *     parameters.</li>
+ *     <li>{@link #MOVE_TO} has the {@link com.wolfetones.cluedo.board.LocationGraph} node of the destination and
+ *     the number of moves that remain after moving to it.</li>
+ *     <li>{@link #POSE_QUESTION} and {@link #FINAL_ACCUSATION} have the code of the suggestion, see
+ *     {@link Suggestion#getCode()}.</li>
+ *     <li>{@link #QUESTION_RESPONSE} has the id of the card that can be shown, see
+ *     {@link com.wolfetones.cluedo.card.Card#getId()}.</li>
+ * </ul>
+ */
+public final class Move {
+    public static final int ROLL_DICE = 1;
+    public static final int USE_PASSAGE = 2;
+    public static final int MOVE_TO = 3;
+    public static final int STOP_MOVING = 4;
+    public static final int POSE_QUESTION = 5;
+    public static final int QUESTION_RESPONSE = 6;
+    public static final int FINAL_ACCUSATION = 7;
+    public static final int END_TURN = 8;
+
+    private static final int TYPE_SHIFT = 24;
+    private static final int REMAINING_MOVES_SHIFT = 16;
+    private static final int PARAMETER_MASK = 0xFFFF;
+
+    private Move() {}
+
+    /**
+     * Encodes a move without parameters.
+     *
+     * @param type the type of the move
+     * @return the encoded move
+     */
+    static int of(int type) {
+        return type << TYPE_SHIFT;
+    }
+
+    /**
+     * Encodes a move with a single parameter.
+     *
+     * @param type the type of the move
+     * @param parameter the node, suggestion code or card id of the move
+     * @return the encoded move
+     */
+    static int of(int type, int parameter) {
+        return type << TYPE_SHIFT | parameter;
+    }
+
+    /**
+     * Encodes a move to a location.
+     *
+     * @param node the location graph node of the destination
+     * @param remainingMoves the number of moves remaining after moving
+     * @return the encoded move
+     */
+    static int moveTo(int node, int remainingMoves) {
+        return MOVE_TO << TYPE_SHIFT | remainingMoves << REMAINING_MOVES_SHIFT | node;
+    }
+
+    /**
+     * Returns the type of a move.
+     *
+     * @param move the encoded move
+     * @return the type of the move
+     */
+    public static int getType(int move) {
+        return move >>> TYPE_SHIFT;
+    }
+
+    /**
+     * Returns the destination of a {@link #MOVE_TO} move.
+     *
+     * @param move the encoded move
+     * @return the location graph node of the destination
+     */
+    public static int getLocationNode(int move) {
+        return move & PARAMETER_MASK;
+    }
+
+    /**
+     * Returns the number of moves remaining after a {@link #MOVE_TO} move.
+     *
+     * @param move the encoded move
+     * @return the number of moves remaining after moving
+     */
+    public static int getRemainingMoves(int move) {
+        return move >>> REMAINING_MOVES_SHIFT & 0xFF;
+    }
+
+    /**
+     * Returns the suggestion code of a {@link #POSE_QUESTION} or {@link #FINAL_ACCUSATION} move.
+     *
+     * @param move the encoded move
+     * @return the suggestion code
+     */
+    public static int getSuggestionCode(int move) {
+        return move & PARAMETER_MASK;
+    }
+
+    /**
+     * Returns the card id of a {@link #QUESTION_RESPONSE} move.
+     *
+     * @param move the encoded move
+     * @return the card id
+     */
+    public static int getCardId(int move) {
+        return move & PARAMETER_MASK;
+    }
+}
@@ -28,7 +28,6 @@ import com.wolfetones.cluedo.card.Card;
 import com.wolfetones.cluedo.card.Suspect;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Player {
     public static final Player DEMO_MODE = new Player(null, null);
@@ -38,6 +37,8 @@ public class Player {
     private Suspect mCharacter;
 
     private List<Card> mCards = new ArrayList<>();
+    /** Bitmask of the ids of the cards this player is holding */
+    private int mHand = 0;
 
     private Knowledge mKnowledge;
 
@@ -61,7 +62,7 @@ public class Player {
      * @return {@code true} if the player is holding the specified card
      */
     public boolean hasCard(Card card) {
-        return mCards.contains(card);
+        return (mHand & card.getMask()) != 0;
     }
 
     /**
@@ -71,6 +72,7 @@ public class Player {
      */
     public void addCard(Card card) {
         mCards.add(card);
+        mHand |= card.getMask();
     }
 
     /**
@@ -82,6 +84,15 @@ public class Player {
         return mCards;
     }
 
+    /**
+     * Returns a bitmask of the ids of the cards that this player is holding.
+     *
+     * @return a bitmask of the cards that this player is holding
+     */
+    public int getHand() {
+        return mHand;
+    }
+
     /**
      * Returns the {@code Suspect} that this player is controlling.
      *
@@ -102,7 +113,7 @@ public class Player {
      * @return {@code true} if the player holds any of the cards used in the {@code suggestion}
      */
     public boolean hasAnySuggestionCards(Suggestion suggestion) {
-        return !Collections.disjoint(mCards, suggestion.asList());
+        return (mHand & suggestion.getCardMask()) != 0;
     }
 
     /**
@@ -112,14 +123,18 @@ public class Player {
      * @return a list of all {@code Card}s matching the cards in the {@code suggestion}
      */
     public List<Card> matchingSuggestionCards(Suggestion suggestion) {
-        List<Card> suggestionCards = suggestion.asList();
-        if (Collections.disjoint(mCards, suggestionCards)) {
+        int matching = mHand & suggestion.getCardMask();
+        if (matching == 0) {
             return null;
         }
 
-        return mCards
-                .stream()
-                .filter(suggestionCards::contains)
-                .collect(Collectors.toList());
+        List<Card> cards = new ArrayList<>(Integer.bitCount(matching));
+        for (Card card : mCards) {
+            if ((matching & card.getMask()) != 0) {
+                cards.add(card);
+            }
+        }
+
+        return cards;
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import com.wolfetones.cluedo.card.Card;
+
+/**
+ * Exact probabilities of card locations according to a player's knowledge, see {@link ProbabilityEngine}.
+ *
+ * Every deal of the unknown cards to the solution and other players that is consistent with the knowledge is
+ * considered equally likely.
+ */
+public class Probabilities {
+    private final Knowledge mKnowledge;
+    private final long mDealCount;
+
+    /** Number of consistent deals in which each card is part of the solution, {@code [card]} */
+    private final long[] mSolutionCounts;
+    /** Number of consistent deals in which each player holds each card, {@code [card * players + player]} */
+    private final long[] mHoldingCounts;
+
+    Probabilities(Knowledge knowledge, long dealCount, long[] solutionCounts, long[] holdingCounts) {
+        mKnowledge = knowledge;
+        mDealCount = dealCount;
+        mSolutionCounts = solutionCounts;
+        mHoldingCounts = holdingCounts;
+    }
+
+    /**
+     * Returns the number of deals consistent with the knowledge.
+     *
+     * If the count is {@code 0}, the knowledge is contradictory and all probabilities are {@code 0}.
+     *
+     * @return the number of consistent deals
+     */
+    public long getDealCount() {
+        return mDealCount;
+    }
+
+    /**
+     * Returns the probability that the specified card is part of the solution.
+     *
+     * @param card the card of interest
+     * @return the probability that the card is part of the solution
+     */
+    public double getSolutionProbability(Card card) {
+        return mDealCount == 0 ? 0 : (double) mSolutionCounts[card.getId()] / mDealCount;
+    }
+
+    /**
+     * Returns the probability that the specified player is holding the specified card.
+     *
+     * @param card the card of interest
+     * @param player the player of interest, other than the player the knowledge belongs to
+     * @return the probability that the player is holding the card
+     */
+    public double getHoldingProbability(Card card, Player player) {
+        int players = mKnowledge.getPlayerCount();
+
+        return mDealCount == 0 ? 0 : (double) mHoldingCounts[card.getId() * players + mKnowledge.getPlayerIndex(player)] / mDealCount;
+    }
+}
@@ -0,0 +1,687 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Computes exact card location probabilities by counting the deals consistent with a player's {@link Knowledge}.
+ *
+ * The cards not visible to the player are dealt to seats: one seat for each card type of the solution, holding a
+ * single card of that type, followed by a seat for every other player holding as many cards as they were dealt.
+ * A deal is consistent if every seat holds all the cards it is known to hold, none of the cards it is known not to
+ * hold, and at least one card of every constraint on it. Only certain (fixed) values are considered.
+ *
+ * Cards that can be dealt to the same seats and belong to the same constraints are interchangeable, and are
+ * grouped into classes. Deals are counted with dynamic programming over the number of cards of each class left to
+ * deal, as the ways to deal them to the remaining seats do not depend on how the earlier cards were dealt. States
+ * are numbered in mixed radix, and as every seat holds at least one card, the number of cards left identifies the
+ * seat being dealt to, so counts are memoised in a single array indexed by state. A backward pass counts the ways
+ * to complete every partial deal, a forward pass counts the ways to reach it, and their products give the number
+ * of deals placing each class in each seat, shared equally between the cards of the class. Both passes process one
+ * seat at a time, in parallel over the states. The backward counts also allow drawing uniformly random consistent
+ * deals, see {@link DealSampler}.
+ *
+ * The hands of a seat are enumerated by the number of cards of each class, cutting short choices that cannot fill
+ * the hand, and only states whose cards can all still be dealt are visited. Knowing little, most cards fall into a
+ * few large classes and there are few states. There are never more states than bitmasks of the unknown cards.
+ *
+ * Engines reuse their memoisation arrays between computations, and results until the knowledge changes.
+ * Engines are not thread safe.
+ */
+public class ProbabilityEngine {
+    /** Minimum number of states of a seat for it to be processed in parallel */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /** Binomial coefficients, {@code [n][k]} */
+    private static final long[][] BINOMIALS = new long[Integer.SIZE + 1][];
+    static {
+        for (int n = 0; n < BINOMIALS.length; n++) {
+            BINOMIALS[n] = new long[n + 1];
+            BINOMIALS[n][0] = BINOMIALS[n][n] = 1;
+            for (int k = 1; k < n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    /** Number of ways to deal the cards left in each state to the remaining seats */
+    private long[] mBackward = new long[0];
+    /** Number of ways to deal the cards not left in each state to the previous seats */
+    private long[] mForward = new long[0];
+
+    /** Knowledge and modification count the tables were last prepared for */
+    private Knowledge mKnowledge;
+    private int mModificationCount;
+    private long mDealCount;
+    /** Result of the last computation, or {@code null} if the tables have been prepared since */
+    private Probabilities mProbabilities;
+
+    private int mPlayerCount;
+
+    /* Seats of the current computation */
+    private int mSeatCount;
+    /** Index of the player of each seat, or {@code -1} for solution seats */
+    private int[] mSeatPlayers;
+    private int[] mSeatSizes;
+    /** Classes that can be dealt to each seat */
+    private int[] mSeatClasses;
+    /** Classes that can be dealt to the seats after each seat */
+    private int[] mLaterClasses;
+    /** Constraints of each seat, as bitmasks of classes at least one card of which must be dealt to the seat */
+    private int[][] mSeatConstraints;
+    /** States from which each seat is dealt to, {@code [seatCount]} only holding the empty state */
+    private int[][] mLevels;
+
+    /* Classes of interchangeable cards */
+    private int mClassCount;
+    /** Bitmask of the ids of the cards of each class */
+    private int[] mClassCards;
+    private int[] mClassSizes;
+    /** Place value of each class in state numbers */
+    private int[] mRadix;
+
+    /** Number of deals left to skip while sampling */
+    private long mSampleTarget;
+
+    /**
+     * Computes the probabilities of the location of every card according to the specified knowledge.
+     *
+     * @param knowledge the knowledge of a player
+     * @return the probabilities of the location of every card
+     */
+    public Probabilities compute(Knowledge knowledge) {
+        long dealCount = prepare(knowledge);
+        if (mProbabilities != null) {
+            return mProbabilities;
+        }
+
+        int players = knowledge.getPlayerCount();
+        long[] solutionCounts = new long[knowledge.getCardCount()];
+        long[] holdingCounts = new long[knowledge.getCardCount() * players];
+
+        if (dealCount == 0) {
+            mProbabilities = new Probabilities(knowledge, 0, solutionCounts, holdingCounts);
+            return mProbabilities;
+        }
+
+        if (mForward.length < mBackward.length) {
+            mForward = new long[mBackward.length];
+        }
+
+        // Forward pass, counting the deals placing each class in each seat
+        // Partial deals that cannot be completed take no part in any deal, and are skipped
+        mForward[mLevels[0][0]] = 1;
+        for (int seat = 0; seat < mSeatCount; seat++) {
+            int current = seat;
+            int[] states = mLevels[seat + 1];
+            long[] counts = stream(states.length).collect(() -> new long[mClassCount],
+                    (acc, i) -> mForward[states[i]] = mBackward[states[i]] == 0 ? 0 : countForward(current, states[i], acc),
+                    ProbabilityEngine::add);
+
+            // Cards of a class are equally likely to be dealt to the seat
+            for (int c = 0; c < mClassCount; c++) {
+                long count = counts[c] / mClassSizes[c];
+                for (int cards = mClassCards[c]; cards != 0; cards &= cards - 1) {
+                    int card = Integer.numberOfTrailingZeros(cards);
+                    if (mSeatPlayers[seat] < 0) {
+                        solutionCounts[card] += count;
+                    } else {
+                        holdingCounts[card * players + mSeatPlayers[seat]] += count;
+                    }
+                }
+            }
+        }
+
+        mProbabilities = new Probabilities(knowledge, dealCount, solutionCounts, holdingCounts);
+        return mProbabilities;
+    }
+
+    /**
+     * Sets up the seats and classes for the specified knowledge and counts the ways to complete every partial deal.
+     *
+     * Nothing is recomputed if the knowledge has not changed since the last preparation.
+     *
+     * @param knowledge the knowledge of a player
+     * @return the number of deals consistent with the knowledge
+     */
+    long prepare(Knowledge knowledge) {
+        if (knowledge == mKnowledge && knowledge.getModificationCount() == mModificationCount) {
+            return mDealCount;
+        }
+
+        mKnowledge = knowledge;
+        mModificationCount = knowledge.getModificationCount();
+        mProbabilities = null;
+        mDealCount = setup(knowledge) ? countDeals() : 0;
+
+        return mDealCount;
+    }
+
+    /**
+     * Draws a deal uniformly at random from the deals consistent with the knowledge last passed to
+     * {@link ProbabilityEngine#prepare(Knowledge)}, which must have at least one consistent deal.
+     *
+     * Each seat's cards are drawn in turn: first the number of cards of each class, with every possibility weighted
+     * by the number of deals including it, then which cards of each class, uniformly. No draws are ever rejected.
+     *
+     * @param random source of randomness
+     * @param deal array to write the deal to, the solution cards followed by the hand of every other player
+     * @param offset index of the first element of the deal in the array
+     */
+    void sample(SplittableRandom random, int[] deal, int offset) {
+        Arrays.fill(deal, offset, offset + 1 + mPlayerCount, 0);
+
+        int[] remaining = mClassCards.clone();
+        int[] counts = new int[mClassCount];
+
+        int state = mLevels[0][0];
+        for (int seat = 0; seat < mSeatCount; seat++) {
+            mSampleTarget = random.nextLong(mBackward[state]);
+            sampleBackward(seat, state, counts);
+
+            int cards = 0;
+            for (int c = 0; c < mClassCount; c++) {
+                for (int i = 0; i < counts[c]; i++) {
+                    int card = nthBit(remaining[c], random.nextInt(Integer.bitCount(remaining[c])));
+                    remaining[c] &= ~card;
+                    cards |= card;
+                }
+                state -= counts[c] * mRadix[c];
+            }
+
+            // Solution seats have no player, and write to the first element
+            deal[offset + 1 + mSeatPlayers[seat]] |= cards;
+        }
+    }
+
+    /**
+     * Sets up the seats and classes of a computation.
+     *
+     * @param knowledge the knowledge of a player
+     * @return {@code false} if the knowledge has no consistent deals
+     */
+    private boolean setup(Knowledge knowledge) {
+        int players = knowledge.getPlayerCount();
+        mPlayerCount = players;
+
+        int visible = knowledge.getCards(Knowledge.Value.Self) | knowledge.getCards(Knowledge.Value.Undistributed);
+        int unknown = ((1 << knowledge.getCardCount()) - 1) & ~visible;
+
+        // Cards known to be held can only be dealt to their holder
+        int required = 0;
+        for (int p = 0; p < players; p++) {
+            required |= knowledge.getFixedCards(p, true);
+        }
+
+        // Seats, solution card types first, skipping players that hold no cards
+        int seats = Knowledge.TYPE_COUNT + players;
+        mSeatPlayers = new int[seats];
+        mSeatSizes = new int[seats];
+        int[] seatCards = new int[seats];
+        int[][] seatConstraints = new int[seats][];
+
+        int seat = 0;
+        int totalSize = 0;
+        for (int type = 0; type < Knowledge.TYPE_COUNT; type++, seat++) {
+            mSeatPlayers[seat] = -1;
+            mSeatSizes[seat] = 1;
+            seatCards[seat] = knowledge.getTypeCards(type) & unknown & ~required;
+            seatConstraints[seat] = new int[0];
+            totalSize++;
+        }
+        for (int p = 0; p < players; p++) {
+            if (knowledge.getHandSize(p) == 0) continue;
+
+            int held = knowledge.getFixedCards(p, true);
+            mSeatPlayers[seat] = p;
+            mSeatSizes[seat] = knowledge.getHandSize(p);
+            seatCards[seat] = unknown & ~knowledge.getFixedCards(p, false) & ~(required & ~held);
+            totalSize += mSeatSizes[seat];
+
+            int count = 0;
+            seatConstraints[seat] = new int[knowledge.getConstraintCount()];
+            for (int c = 0; c < knowledge.getConstraintCount(); c++) {
+                if (knowledge.getConstraintPlayer(c) != p) continue;
+
+                // Constraints including a card known to be held are satisfied
+                int cards = knowledge.getConstraintCards(c) & seatCards[seat];
+                if ((cards & held) != 0) continue;
+                if (cards == 0) {
+                    return false;
+                }
+
+                seatConstraints[seat][count++] = cards;
+            }
+            seatConstraints[seat] = Arrays.copyOf(seatConstraints[seat], count);
+
+            seat++;
+        }
+        mSeatCount = seat;
+
+        if (totalSize != Integer.bitCount(unknown)) {
+            return false;
+        }
+
+        // Group cards that can be dealt to the same seats and belong to the same constraints
+        int[] classSeats = new int[Integer.bitCount(unknown)];
+        mClassCards = new int[classSeats.length];
+        mClassCount = 0;
+        for (int cards = unknown; cards != 0; cards &= cards - 1) {
+            int card = Integer.numberOfTrailingZeros(cards);
+
+            int cardSeats = 0;
+            for (int s = 0; s < mSeatCount; s++) {
+                if ((seatCards[s] & (1 << card)) != 0) {
+                    cardSeats |= 1 << s;
+                }
+            }
+            if (cardSeats == 0) {
+                return false;
+            }
+
+            int c = 0;
+            while (c < mClassCount && !(classSeats[c] == cardSeats
+                    && isInterchangeable(card, Integer.numberOfTrailingZeros(mClassCards[c]), seatConstraints))) {
+                c++;
+            }
+            if (c == mClassCount) {
+                classSeats[mClassCount++] = cardSeats;
+            }
+            mClassCards[c] |= 1 << card;
+        }
+
+        mClassSizes = new int[mClassCount];
+        mRadix = new int[mClassCount];
+        int states = 1;
+        for (int c = 0; c < mClassCount; c++) {
+            mClassSizes[c] = Integer.bitCount(mClassCards[c]);
+            mRadix[c] = states;
+            states *= mClassSizes[c] + 1;
+        }
+
+        // Seats in terms of classes
+        mSeatClasses = new int[mSeatCount];
+        mLaterClasses = new int[mSeatCount];
+        mSeatConstraints = new int[mSeatCount][];
+        for (int s = mSeatCount - 1; s >= 0; s--) {
+            for (int c = 0; c < mClassCount; c++) {
+                if ((classSeats[c] & (1 << s)) != 0) {
+                    mSeatClasses[s] |= 1 << c;
+                }
+            }
+            mLaterClasses[s] = s + 1 < mSeatCount ? mLaterClasses[s + 1] | mSeatClasses[s + 1] : 0;
+
+            mSeatConstraints[s] = new int[seatConstraints[s].length];
+            for (int i = 0; i < seatConstraints[s].length; i++) {
+                for (int c = 0; c < mClassCount; c++) {
+                    if ((mClassCards[c] & seatConstraints[s][i]) != 0) {
+                        mSeatConstraints[s][i] |= 1 << c;
+                    }
+                }
+            }
+        }
+
+        mLevels = getLevels();
+
+        if (mBackward.length < states) {
+            mBackward = new long[states];
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if two cards belong to the same constraints.
+     */
+    private static boolean isInterchangeable(int a, int b, int[][] seatConstraints) {
+        for (int[] constraints : seatConstraints) {
+            for (int cards : constraints) {
+                if (((cards >>> a) & 1) != ((cards >>> b) & 1)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the states from which each seat is dealt to, leaving out states with cards that cannot be dealt to
+     * the seat or any seat after it.
+     *
+     * @return the states of each seat, and of the end of the deal
+     */
+    private int[][] getLevels() {
+        int[][] levels = new int[mSeatCount + 1][];
+        levels[mSeatCount] = new int[] { 0 };
+
+        int left = 0;
+        for (int s = mSeatCount - 1; s >= 0; s--) {
+            left += mSeatSizes[s];
+
+            IntStream.Builder states = IntStream.builder();
+            int classes = mSeatClasses[s] | mLaterClasses[s];
+            addStates(states, classes, count(mClassSizes, classes), left, 0);
+            levels[s] = states.build().toArray();
+        }
+
+        return levels;
+    }
+
+    /**
+     * Adds every state with {@code left} more cards of the specified classes left.
+     *
+     * @param capacity number of cards of the specified classes
+     * @param state state with the cards left so far
+     */
+    private void addStates(IntStream.Builder states, int classes, int capacity, int left, int state) {
+        if (left == 0) {
+            states.add(state);
+            return;
+        }
+        if (left > capacity) {
+            return;
+        }
+
+        int c = Integer.numberOfTrailingZeros(classes);
+        for (int digit = 0; digit <= Math.min(mClassSizes[c], left); digit++) {
+            addStates(states, classes & (classes - 1), capacity - mClassSizes[c], left - digit, state + digit * mRadix[c]);
+        }
+    }
+
+    /**
+     * Runs the backward pass, from the last seat.
+     *
+     * @return the number of consistent deals
+     */
+    private long countDeals() {
+        mBackward[0] = 1;
+        for (int seat = mSeatCount - 1; seat >= 0; seat--) {
+            int current = seat;
+            int[] states = mLevels[seat];
+            stream(states.length).forEach(i -> mBackward[states[i]] = countBackward(current, states[i]));
+        }
+
+        return mLevels[0].length == 0 ? 0 : mBackward[mLevels[0][0]];
+    }
+
+    /**
+     * Returns the number of ways to deal the cards left in {@code state} to the seat and the seats after it.
+     */
+    private long countBackward(int seat, int state) {
+        int[] digits = getDigits(state);
+
+        // Cards that cannot be dealt to later seats must be dealt to this one
+        int forced = getClasses(digits) & ~mLaterClasses[seat];
+        int left = mSeatSizes[seat];
+        int next = state;
+        for (int classes = forced; classes != 0; classes &= classes - 1) {
+            int c = Integer.numberOfTrailingZeros(classes);
+            left -= digits[c];
+            next -= digits[c] * mRadix[c];
+        }
+        if (left < 0) {
+            return 0;
+        }
+
+        int optional = getClasses(digits) & mSeatClasses[seat] & ~forced;
+
+        return countBackward(seat, digits, optional, count(digits, optional), left, forced, 1, next);
+    }
+
+    /**
+     * Returns the number of ways to deal the cards left to the seat and the seats after it, with {@code left} more
+     * cards of the {@code optional} classes dealt to the seat.
+     *
+     * @param available number of cards of the optional classes
+     * @param chosen classes dealt to the seat so far
+     * @param ways ways to choose the cards dealt to the seat so far
+     * @param next state after dealing the cards so far
+     */
+    private long countBackward(int seat, int[] digits, int optional, int available, int left, int chosen, long ways, int next) {
+        if (left == 0) {
+            return isValid(seat, chosen) ? ways * mBackward[next] : 0;
+        }
+        if (left > available) {
+            return 0;
+        }
+
+        int c = Integer.numberOfTrailingZeros(optional);
+        int digit = digits[c];
+
+        long count = 0;
+        for (int take = 0; take <= Math.min(digit, left); take++) {
+            count += countBackward(seat, digits, optional & (optional - 1), available - digit, left - take,
+                    take > 0 ? chosen | 1 << c : chosen, ways * BINOMIALS[digit][take], next - take * mRadix[c]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Finds the numbers of cards of each class dealt to the seat in the deal at {@code mSampleTarget}, in the order
+     * of {@link ProbabilityEngine#countBackward(int, int)}.
+     *
+     * @param counts array to store the number of cards of each class dealt to the seat
+     * @return {@code true} if the deal was found, otherwise its deals have been skipped
+     */
+    private boolean sampleBackward(int seat, int state, int[] counts) {
+        int[] digits = getDigits(state);
+
+        int forced = getClasses(digits) & ~mLaterClasses[seat];
+        int left = mSeatSizes[seat];
+        int next = state;
+        Arrays.fill(counts, 0);
+        for (int classes = forced; classes != 0; classes &= classes - 1) {
+            int c = Integer.numberOfTrailingZeros(classes);
+            counts[c] = digits[c];
+            left -= digits[c];
+            next -= digits[c] * mRadix[c];
+        }
+
+        int optional = getClasses(digits) & mSeatClasses[seat] & ~forced;
+
+        return sampleBackward(seat, digits, optional, count(digits, optional), left, forced, 1, next, counts);
+    }
+
+    /**
+     * Finds the numbers of cards of the optional classes dealt to the seat, see
+     * {@link ProbabilityEngine#sampleBackward(int, int, int[])}.
+     */
+    private boolean sampleBackward(int seat, int[] digits, int optional, int available, int left, int chosen, long ways, int next, int[] counts) {
+        if (left == 0 || left > available) {
+            long count = left == 0 && isValid(seat, chosen) ? ways * mBackward[next] : 0;
+            if (mSampleTarget < count) {
+                return true;
+            }
+
+            mSampleTarget -= count;
+            return false;
+        }
+
+        int c = Integer.numberOfTrailingZeros(optional);
+        int digit = digits[c];
+
+        for (int take = 0; take <= Math.min(digit, left); take++) {
+            counts[c] = take;
+            if (sampleBackward(seat, digits, optional & (optional - 1), available - digit, left - take,
+                    take > 0 ? chosen | 1 << c : chosen, ways * BINOMIALS[digit][take], next - take * mRadix[c], counts)) {
+                return true;
+            }
+        }
+        counts[c] = 0;
+
+        return false;
+    }
+
+    /**
+     * Returns the number of ways to deal the cards not left in {@code next} to the seats up to and including the
+     * specified seat, adding the number of complete deals placing cards of each class in the seat to {@code counts}.
+     */
+    private long countForward(int seat, int next, long[] counts) {
+        int[] digits = getDigits(next);
+
+        // Classes with cards that may have been dealt to the seat
+        int optional = 0;
+        int available = 0;
+        for (int classes = mSeatClasses[seat]; classes != 0; classes &= classes - 1) {
+            int c = Integer.numberOfTrailingZeros(classes);
+            if (digits[c] < mClassSizes[c]) {
+                optional |= 1 << c;
+                available += mClassSizes[c] - digits[c];
+            }
+        }
+
+        long[] reached = new long[mClassCount];
+        long count = countForward(seat, digits, optional, available, mSeatSizes[seat], 0, 1, next, new int[mClassCount], reached);
+
+        // Every way to reach the state is completed in the same number of ways
+        for (int c = 0; c < mClassCount; c++) {
+            counts[c] += reached[c] * mBackward[next];
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of ways to reach the state with {@code left} more cards of the {@code optional} classes
+     * dealt to the seat, adding the number of ways placing cards of each class in the seat to {@code counts}.
+     *
+     * @param digits number of cards of each class left after the seat
+     * @param available number of cards of the optional classes that are not left
+     * @param chosen classes dealt to the seat so far
+     * @param ways ways to choose the cards dealt to the seat so far
+     * @param state state before dealing the cards so far
+     * @param taken number of cards of each class dealt to the seat so far
+     */
+    private long countForward(int seat, int[] digits, int optional, int available, int left, int chosen, long ways, int state, int[] taken, long[] counts) {
+        if (left == 0) {
+            if (!isValid(seat, chosen) || mForward[state] == 0) {
+                return 0;
+            }
+
+            long reached = mForward[state] * ways;
+            for (int i = 0; i < mClassCount; i++) {
+                counts[i] += reached * taken[i];
+            }
+
+            return reached;
+        }
+        if (left > available) {
+            return 0;
+        }
+
+        int c = Integer.numberOfTrailingZeros(optional);
+        int digit = digits[c];
+        int room = mClassSizes[c] - digit;
+
+        long count = 0;
+        for (int take = 0; take <= Math.min(room, left); take++) {
+            taken[c] = take;
+            count += countForward(seat, digits, optional & (optional - 1), available - room, left - take,
+                    take > 0 ? chosen | 1 << c : chosen, ways * BINOMIALS[digit + take][take], state + take * mRadix[c], taken, counts);
+        }
+        taken[c] = 0;
+
+        return count;
+    }
+
+    /**
+     * Returns the number of cards of each class left in a state.
+     */
+    private int[] getDigits(int state) {
+        int[] digits = new int[mClassCount];
+        for (int c = 0; c < mClassCount; c++) {
+            digits[c] = state / mRadix[c] % (mClassSizes[c] + 1);
+        }
+
+        return digits;
+    }
+
+    /**
+     * Returns the bitmask of classes with cards left.
+     */
+    private static int getClasses(int[] digits) {
+        int classes = 0;
+        for (int c = 0; c < digits.length; c++) {
+            if (digits[c] > 0) {
+                classes |= 1 << c;
+            }
+        }
+
+        return classes;
+    }
+
+    /**
+     * Returns the total number of cards of the specified classes, given the number of cards of each class.
+     */
+    private static int count(int[] counts, int classes) {
+        int count = 0;
+        for (; classes != 0; classes &= classes - 1) {
+            count += counts[Integer.numberOfTrailingZeros(classes)];
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns {@code true} if the classes dealt to the seat satisfy all of its constraints.
+     */
+    private boolean isValid(int seat, int chosen) {
+        for (int constraint : mSeatConstraints[seat]) {
+            if ((chosen & constraint) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the {@code n}th lowest set bit of {@code mask}.
+     */
+    private static int nthBit(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+
+        return mask & -mask;
+    }
+
+    private static IntStream stream(int count) {
+        IntStream stream = IntStream.range(0, count);
+
+        return count >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    private static void add(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.game;
+
+import com.wolfetones.cluedo.board.BitBoard;
+import com.wolfetones.cluedo.board.BoardModel;
+import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.card.Room;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dice-aware probabilities of reaching each room from a location.
+ *
+ * For every room, gives the probability of entering it this turn and the expected number of turns needed to
+ * reach it, computed from the distribution of the sum of {@link Game#NUM_DICE} six-sided dice. Tables are
+ * memoised per start location and board occupancy.
+ */
+public class RoomReachability {
+    private static final int DICE_SIDES = 6;
+
+    /** Maximum number of memoised tables before the cache is cleared */
+    private static final int MAX_CACHED_TABLES = 4096;
+
+    private final BoardModel mBoard;
+    private final List<Room> mRooms;
+    /** Card id of the first room, rooms have consecutive ids and the guess room follows them in the tables */
+    private final int mFirstRoomId;
+
+    /**
+     * Probability of each dice sum, and of rolling at least each sum.
+     */
+    private final double[] mSumProbabilities;
+    private final double[] mAtLeastProbabilities;
+
+    /**
+     * Expected number of turns needed to cover each distance, grown as needed.
+     */
+    private double[] mExpectedTurns = new double[1];
+
+    private final Map<Long, Table> mCache = new HashMap<>();
+
+    /**
+     * Constructs the room reachability calculator for a board.
+     *
+     * @param board the board
+     * @param numDice the number of dice rolled each turn
+     */
+    public RoomReachability(BoardModel board, int numDice) {
+        mBoard = board;
+        mRooms = board.getRoomsWithGuessRoom();
+        mFirstRoomId = board.getRooms().get(0).getId();
+
+        // Distribution of the dice sum, by repeated convolution
+        double[] sums = {1};
+        for (int i = 0; i < numDice; i++) {
+            double[] next = new double[sums.length + DICE_SIDES];
+            for (int sum = 0; sum < sums.length; sum++) {
+                for (int face = 1; face <= DICE_SIDES; face++) {
+                    next[sum + face] += sums[sum] / DICE_SIDES;
+                }
+            }
+            sums = next;
+        }
+        mSumProbabilities = sums;
+
+        mAtLeastProbabilities = new double[sums.length + 1];
+        for (int sum = sums.length - 1; sum >= 0; sum--) {
+            mAtLeastProbabilities[sum] = mAtLeastProbabilities[sum + 1] + sums[sum];
+        }
+    }
+
+    /**
+     * Returns the probability of rolling at least the specified total.
+     *
+     * @param total the dice total
+     * @return the probability of rolling at least {@code total}
+     */
+    public double getProbabilityOfRollingAtLeast(int total) {
+        return mAtLeastProbabilities[Math.max(0, Math.min(total, mAtLeastProbabilities.length - 1))];
+    }
+
+    /**
+     * Returns the expected number of turns needed to move a distance, assuming the route stays free.
+     *
+     * @param distance the number of moves
+     * @return the expected number of dice rolls needed to cover {@code distance}
+     */
+    public double getExpectedTurns(int distance) {
+        if (distance >= mExpectedTurns.length) {
+            int from = mExpectedTurns.length;
+            mExpectedTurns = Arrays.copyOf(mExpectedTurns, Math.max(distance + 1, from * 2));
+
+            // E(d) = 1 + sum over s of P(s) * E(d - s), with E(d) = 0 for d <= 0
+            for (int d = from; d < mExpectedTurns.length; d++) {
+                double expected = 1;
+                for (int sum = 1; sum < d && sum < mSumProbabilities.length; sum++) {
+                    expected += mSumProbabilities[sum] * mExpectedTurns[d - sum];
+                }
+                mExpectedTurns[d] = expected;
+            }
+        }
+
+        return mExpectedTurns[distance];
+    }
+
+    /**
+     * Returns the reachability table for a start location and the current occupancy of the board.
+     *
+     * @param start the location from which the dice will be rolled
+     * @return the reachability of every room from {@code start}
+     */
+    public Table get(Location start) {
+        int startId = mBoard.getDistanceTable().getLocationId(start);
+        long[] occupied = mBoard.getBitBoard().getOccupiedMask();
+        long key = mBoard.getBitBoard().getOccupancyHash() * 31 + startId;
+
+        Table table = mCache.get(key);
+        if (table != null && table.mStartId == startId && Arrays.equals(table.mOccupied, occupied)) {
+            return table;
+        }
+
+        table = new Table(startId, occupied, mRooms.size());
+        for (int i = 0; i < mRooms.size(); i++) {
+            Room room = mRooms.get(i);
+            if (room == start) {
+                // Already in the room, and cannot return to it this turn
+                table.mProbabilities[i] = 0;
+                table.mExpectedTurns[i] = 0;
+            } else if (start.isRoom() && start.asRoom().getPassageRoom() == room) {
+                // Secret passage can be used instead of rolling
+                table.mProbabilities[i] = 1;
+                table.mExpectedTurns[i] = 1;
+            } else {
+                int distance = mBoard.getDistance(start, room);
+                if (distance < 0) {
+                    table.mProbabilities[i] = 0;
+                    table.mExpectedTurns[i] = Double.POSITIVE_INFINITY;
+                } else {
+                    table.mProbabilities[i] = getProbabilityOfRollingAtLeast(distance);
+                    table.mExpectedTurns[i] = getExpectedTurns(distance);
+                }
+            }
+        }
+
+        if (mCache.size() >= MAX_CACHED_TABLES) {
+            mCache.clear();
+        }
+        mCache.put(key, table);
+
+        return table;
+    }
+
+    /**
+     * Returns the index of a room in the tables, in the order of {@link BoardModel#getRoomsWithGuessRoom()}.
+     *
+     * @param room the room
+     * @return the index of the room
+     */
+    private int roomIndex(Room room) {
+        // The guess room is not a card, and is last
+        return room == mBoard.getGuessRoom() ? mRooms.size() - 1 : room.getId() - mFirstRoomId;
+    }
+
+    /**
+     * Reachability of every room from a single start location, indexed in the order of
+     * {@link BoardModel#getRoomsWithGuessRoom()}.
+     */
+    public class Table {
+        private final int mStartId;
+        private final long[] mOccupied;
+
+        private final double[] mProbabilities;
+        private final double[] mExpectedTurns;
+
+        private Table(int startId, long[] occupied, int rooms) {
+            mStartId = startId;
+            mOccupied = occupied;
+            mProbabilities = new double[rooms];
+            mExpectedTurns = new double[rooms];
+        }
+
+        /**
+         * Returns the probability of entering a room this turn.
+         *
+         * @param room the room
+         * @return the probability of entering {@code room} this turn
+         */
+        public double getProbability(Room room) {
+            return mProbabilities[roomIndex(room)];
+        }
+
+        /**
+         * Returns the expected number of turns needed to reach a room.
+         *
+         * @param room the room
+         * @return the expected number of turns needed to reach {@code room}, infinite if it cannot be reached
+         */
+        public double getExpectedTurns(Room room) {
+            return mExpectedTurns[roomIndex(room)];
+        }
+
+        /**
+         * Returns the probabilities of entering each room this turn.
+         *
+         * @return a copy of the probabilities, indexed by room
+         */
+        public double[] getProbabilities() {
+            return mProbabilities.clone();
+        }
+
+        /**
+         * Returns the expected number of turns needed to reach each room.
+         *
+         * @return a copy of the expected turns, indexed by room
+         */
+        public double[] getExpectedTurns() {
+            return mExpectedTurns.clone();
+        }
+    }
+}
@@ -24,10 +24,12 @@
 
 package com.wolfetones.cluedo.game;
 
+import com.wolfetones.cluedo.board.BoardModel;
 import com.wolfetones.cluedo.card.Card;
 import com.wolfetones.cluedo.card.Room;
 import com.wolfetones.cluedo.card.Suspect;
 import com.wolfetones.cluedo.card.Weapon;
+import com.wolfetones.cluedo.config.Config;
 
 import java.util.Arrays;
 import java.util.List;
@@ -38,6 +40,24 @@ import java.util.List;
  * Composed of a {@code Room}, {@code Suspect} and {@code Weapon}.
  */
 public class Suggestion {
+    /*
+     * Number of cards of each type that can be suggested
+     */
+    public static final int SUSPECT_COUNT = Config.Cards.SUSPECTS.length;
+    public static final int WEAPON_COUNT = Config.Cards.WEAPONS.length;
+    public static final int ROOM_COUNT = (int) Arrays.stream(Config.Cards.ROOMS).filter(r -> !r.guess).count();
+
+    /** Number of possible suggestions, codes are in the range {@code [0, CODE_COUNT)} */
+    public static final int CODE_COUNT = SUSPECT_COUNT * WEAPON_COUNT * ROOM_COUNT;
+
+    /** Bitmask of the card ids of each suggestion, indexed by code */
+    private static final int[] CODE_CARD_MASKS = new int[CODE_COUNT];
+    static {
+        for (int code = 0; code < CODE_COUNT; code++) {
+            CODE_CARD_MASKS[code] = 1 << getSuspectId(code) | 1 << getWeaponId(code) | 1 << getRoomId(code);
+        }
+    }
+
     public final Room room;
     public final Suspect suspect;
     public final Weapon weapon;
@@ -63,6 +83,95 @@ public class Suggestion {
         return List.of(suspect, room, weapon);
     }
 
+    /**
+     * Returns a bitmask of the ids of the cards of this suggestion.
+     *
+     * @return the bitmask of the cards of the suggestion.
+     */
+    public int getCardMask() {
+        return suspect.getMask() | weapon.getMask() | room.getMask();
+    }
+
+    /**
+     * Returns the code of this suggestion, a dense integer identifying its suspect, weapon and room.
+     *
+     * @return The code of the suggestion.
+     * @see Suggestion#getCode(int, int, int)
+     */
+    public int getCode() {
+        return getCode(suspect.getId(), weapon.getId(), room.getId());
+    }
+
+    /**
+     * Returns the code of the suggestion made up of the specified cards.
+     *
+     * Card ids are laid out as suspects, weapons and rooms, see {@link Card#getId()}, and the code is
+     * {@code (room * WEAPON_COUNT + weapon) * SUSPECT_COUNT + suspect} using the index of each card within its type.
+     *
+     * @param suspectId Card id of the suspect.
+     * @param weaponId Card id of the weapon.
+     * @param roomId Card id of the room.
+     * @return The code of the suggestion.
+     */
+    public static int getCode(int suspectId, int weaponId, int roomId) {
+        return ((roomId - SUSPECT_COUNT - WEAPON_COUNT) * WEAPON_COUNT + weaponId - SUSPECT_COUNT) * SUSPECT_COUNT + suspectId;
+    }
+
+    /**
+     * Returns the card id of the suspect of a suggestion code.
+     *
+     * @param code Suggestion code.
+     * @return The card id of the suspect.
+     */
+    public static int getSuspectId(int code) {
+        return code % SUSPECT_COUNT;
+    }
+
+    /**
+     * Returns the card id of the weapon of a suggestion code.
+     *
+     * @param code Suggestion code.
+     * @return The card id of the weapon.
+     */
+    public static int getWeaponId(int code) {
+        return SUSPECT_COUNT + code / SUSPECT_COUNT % WEAPON_COUNT;
+    }
+
+    /**
+     * Returns the card id of the room of a suggestion code.
+     *
+     * @param code Suggestion code.
+     * @return The card id of the room.
+     */
+    public static int getRoomId(int code) {
+        return SUSPECT_COUNT + WEAPON_COUNT + code / (SUSPECT_COUNT * WEAPON_COUNT);
+    }
+
+    /**
+     * Returns a bitmask of the ids of the cards of a suggestion code.
+     *
+     * @param code Suggestion code.
+     * @return The bitmask of the cards of the suggestion.
+     */
+    public static int getCardMask(int code) {
+        return CODE_CARD_MASKS[code];
+    }
+
+    /**
+     * Creates the suggestion identified by a code.
+     *
+     * @param code Suggestion code.
+     * @param board Board whose cards the suggestion is made up of.
+     * @return The suggestion.
+     */
+    public static Suggestion fromCode(int code, BoardModel board) {
+        List<Card> cards = board.getCards();
+
+        return new Suggestion((Suspect) cards.get(getSuspectId(code)),
+                (Weapon) cards.get(getWeaponId(code)),
+                (Room) cards.get(getRoomId(code)));
+    }
+
     public String asHumanReadableString() {
         return suspect.getName() + " in the " + room.getName() + " with the " + weapon.getName();
     }
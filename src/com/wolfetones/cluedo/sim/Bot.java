@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.sim;
+
+import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.card.Card;
+import com.wolfetones.cluedo.card.Room;
+import com.wolfetones.cluedo.game.Game;
+import com.wolfetones.cluedo.game.Player;
+import com.wolfetones.cluedo.game.Suggestion;
+
+import java.util.List;
+
+/**
+ * Programmatic player, making the decisions of a player during simulated games.
+ *
+ * Bots only choose actions, the {@link Simulation} performs them on the {@link Game}. A bot instance is used for a
+ * single game at a time, so implementations may keep per-game state.
+ */
+public interface Bot {
+    /**
+     * Returns {@code true} if the player should use the secret passage in their room instead of rolling the dice.
+     *
+     * @param game the game being played
+     * @param player the player whose turn it is
+     * @return {@code true} to use the secret passage
+     */
+    boolean usePassage(Game game, Player player);
+
+    /**
+     * Chooses the location to move to with the remaining moves of the turn.
+     *
+     * The location must be reachable according to {@link Game#getReachabilityMap()} and must not be the room the
+     * player started the turn in.
+     *
+     * @param game the game being played
+     * @param player the player whose turn it is
+     * @return the location to move to, or {@code null} to stop moving
+     */
+    Location chooseMove(Game game, Player player);
+
+    /**
+     * Chooses the question to pose in a room.
+     *
+     * @param game the game being played
+     * @param player the player whose turn it is
+     * @param room the room the player is in
+     * @return the question to pose
+     */
+    Suggestion chooseSuggestion(Game game, Player player, Room room);
+
+    /**
+     * Chooses which card to show in response to a question.
+     *
+     * @param game the game being played
+     * @param player the player responding to the question
+     * @param cards the player's cards matching the question
+     * @return the card to show
+     */
+    Card chooseResponse(Game game, Player player, List<Card> cards);
+
+    /**
+     * Chooses the final accusation to make in the guess room.
+     *
+     * @param game the game being played
+     * @param player the player whose turn it is
+     * @return the final accusation, or {@code null} to not make one yet
+     */
+    Suggestion chooseAccusation(Game game, Player player);
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.sim;
+
+import com.wolfetones.cluedo.board.BoardModel;
+import com.wolfetones.cluedo.board.DistanceTable;
+import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.board.LocationGraph;
+import com.wolfetones.cluedo.board.ReachabilityMap;
+import com.wolfetones.cluedo.card.*;
+import com.wolfetones.cluedo.game.Game;
+import com.wolfetones.cluedo.game.Knowledge;
+import com.wolfetones.cluedo.game.Player;
+import com.wolfetones.cluedo.game.Suggestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Bot that plays using the card knowledge recorded for it by the {@link Game}.
+ *
+ * Cards that no player is known to hold are treated as candidates for the solution. The bot heads for the nearest
+ * candidate room and asks about random candidates, and once a single candidate remains in every category it heads
+ * for the guess room to make its accusation.
+ */
+public class KnowledgeBot implements Bot {
+    private final SplittableRandom mRandom;
+
+    /**
+     * Constructs a new {@code KnowledgeBot}.
+     *
+     * @param random source of randomness for choices between equally good options
+     */
+    public KnowledgeBot(SplittableRandom random) {
+        mRandom = random;
+    }
+
+    @Override
+    public boolean usePassage(Game game, Player player) {
+        Room passageRoom = game.getCurrentPlayerLocation().asRoom().getPassageRoom();
+
+        return passageRoom == getTargetRoom(game, player);
+    }
+
+    @Override
+    public Location chooseMove(Game game, Player player) {
+        Room target = getTargetRoom(game, player);
+        if (target == null) {
+            return null;
+        }
+
+        ReachabilityMap map = game.getReachabilityMap();
+        int remainingMoves = game.getTurnRemainingMoves();
+        if (map.isReachable(target, remainingMoves)) {
+            return target;
+        }
+
+        // Otherwise get as close as possible to the target through the corridors
+        BoardModel board = game.getBoard();
+        LocationGraph graph = board.getLocationGraph();
+        DistanceTable distances = board.getDistanceTable();
+        int targetNode = graph.getNode(target);
+
+        Location best = null;
+        int bestDistance = distances.getUnobstructedDistance(game.getCurrentPlayerLocation(), target);
+        for (int node = 0; node < graph.getRoomsStart(); node++) {
+            int distance = distances.getUnobstructedDistance(node, targetNode);
+            if (distance < 0 || (best != null && distance >= bestDistance)) continue;
+
+            Location location = graph.getLocation(node);
+            if (location != game.getCurrentPlayerLocation() && map.isReachable(location, remainingMoves)) {
+                best = location;
+                bestDistance = distance;
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public Suggestion chooseSuggestion(Game game, Player player, Room room) {
+        BoardModel board = game.getBoard();
+
+        return new Suggestion(randomCandidate(player, board.getSuspects()), randomCandidate(player, board.getWeapons()), room);
+    }
+
+    @Override
+    public Card chooseResponse(Game game, Player player, List<Card> cards) {
+        return cards.get(mRandom.nextInt(cards.size()));
+    }
+
+    @Override
+    public Suggestion chooseAccusation(Game game, Player player) {
+        BoardModel board = game.getBoard();
+
+        List<Suspect> suspects = getCandidates(player, board.getSuspects());
+        List<Weapon> weapons = getCandidates(player, board.getWeapons());
+        List<Room> rooms = getCandidates(player, board.getRooms());
+        if (suspects.size() != 1 || weapons.size() != 1 || rooms.size() != 1) {
+            return null;
+        }
+
+        return new Suggestion(suspects.get(0), weapons.get(0), rooms.get(0));
+    }
+
+    /**
+     * Returns the room the player should head to, the guess room once the solution is known or otherwise the
+     * nearest candidate room.
+     */
+    private Room getTargetRoom(Game game, Player player) {
+        BoardModel board = game.getBoard();
+
+        if (chooseAccusation(game, player) != null) {
+            return board.getGuessRoom();
+        }
+
+        // If the only candidate is the room the player is in, leave for another room to be able to come back
+        Room target = getNearestRoom(game, getCandidates(player, board.getRooms()));
+        if (target == null) {
+            target = getNearestRoom(game, board.getRooms());
+        }
+
+        return target;
+    }
+
+    /**
+     * Returns the room closest to the player, other than the room they started the turn in.
+     */
+    private static Room getNearestRoom(Game game, List<Room> rooms) {
+        Room best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Room room : rooms) {
+            if (room == game.getTurnInitialPlayerRoom()) continue;
+
+            int distance = game.getBoard().getDistanceTable().getUnobstructedDistance(game.getCurrentPlayerLocation(), room);
+            if (distance >= 0 && distance < bestDistance) {
+                best = room;
+                bestDistance = distance;
+            }
+        }
+
+        return best;
+    }
+
+    private <C extends Card> C randomCandidate(Player player, List<C> cards) {
+        List<C> candidates = getCandidates(player, cards);
+
+        return candidates.get(mRandom.nextInt(candidates.size()));
+    }
+
+    /**
+     * Returns the cards that could be part of the solution according to the player's knowledge.
+     */
+    private static <C extends Card> List<C> getCandidates(Player player, List<C> cards) {
+        List<C> candidates = new ArrayList<>();
+        for (C card : cards) {
+            if (isCandidate(player.getKnowledge(), card)) {
+                candidates.add(card);
+            }
+        }
+
+        return candidates;
+    }
+
+    private static boolean isCandidate(Knowledge knowledge, Card card) {
+        int known = knowledge.getCards(Knowledge.Value.Holding)
+                | knowledge.getCards(Knowledge.Value.Self)
+                | knowledge.getCards(Knowledge.Value.Undistributed);
+
+        return (known & card.getMask()) == 0;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.sim;
+
+import com.wolfetones.cluedo.board.BoardModel;
+import com.wolfetones.cluedo.board.Location;
+import com.wolfetones.cluedo.card.Card;
+import com.wolfetones.cluedo.card.Suspect;
+import com.wolfetones.cluedo.config.Config;
+import com.wolfetones.cluedo.game.Game;
+import com.wolfetones.cluedo.game.Player;
+import com.wolfetones.cluedo.game.Suggestion;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Plays complete games between bots, in parallel across all available cores.
+ *
+ * Games are driven directly through {@link Game}, without any user interface. The games to play are split
+ * recursively into fork/join tasks, each of which records its games into its own {@link Statistics}, and the
+ * statistics are merged as the tasks are joined.
+ */
+public class Simulation {
+    /** Number of games below which a task plays its games instead of splitting further */
+    private static final int GAMES_PER_TASK = 64;
+
+    private final int mPlayers;
+    private final int mMaxTurns;
+    private final Function<SplittableRandom, Bot> mBotFactory;
+
+    /**
+     * Constructs a new simulation.
+     *
+     * @param players number of players in each game
+     * @param maxTurns number of turns after which a game is stopped without a winner
+     * @param botFactory creates the bot for each player, given a source of randomness for the bot to use
+     */
+    public Simulation(int players, int maxTurns, Function<SplittableRandom, Bot> botFactory) {
+        if (players < 2 || players > Config.Cards.SUSPECTS.length) {
+            throw new IllegalArgumentException("Invalid number of players " + players);
+        }
+
+        mPlayers = players;
+        mMaxTurns = maxTurns;
+        mBotFactory = botFactory;
+    }
+
+    /**
+     * Plays the specified number of games using the common fork/join pool.
+     *
+     * @param games number of games to play
+     * @param seed seed for the randomness of the games and bots
+     * @return the statistics of all games played
+     */
+    public Statistics run(long games, long seed) {
+        return run(ForkJoinPool.commonPool(), games, seed);
+    }
+
+    /**
+     * Plays the specified number of games using the specified pool.
+     *
+     * @param pool the pool in which to play the games
+     * @param games number of games to play
+     * @param seed seed for the randomness of the games and bots
+     * @return the statistics of all games played
+     */
+    public Statistics run(ForkJoinPool pool, long games, long seed) {
+        return pool.invoke(new SimulationTask(games, new SplittableRandom(seed)));
+    }
+
+    /**
+     * Plays a single game to completion or until the turn limit is reached.
+     *
+     * @param random source of the seed of the game and the randomness of the bots
+     * @param statistics statistics to record the game into
+     */
+    void playGame(SplittableRandom random, Statistics statistics) {
+        Game game = new Game(random.nextLong());
+        BoardModel board = game.getBoard();
+
+        Bot[] bots = new Bot[mPlayers];
+        for (int i = 0; i < mPlayers; i++) {
+            Suspect suspect = board.getSuspects().get(i);
+            game.addPlayer(new Player(suspect, suspect.getName()));
+            bots[i] = mBotFactory.apply(random.split());
+            statistics.recordPlayer(i);
+        }
+
+        game.start();
+
+        int turns = 0;
+        int suggestions = 0;
+        int incorrectAccusations = 0;
+        Player winner = null;
+        boolean solved = false;
+
+        while (!game.isFinished() && turns < mMaxTurns) {
+            Player player = game.nextTurn();
+            Bot bot = bots[board.getSuspects().indexOf(player.getCharacter())];
+            turns++;
+
+            // Questions can be posed without moving by players moved into a room by another player's question
+            if (!game.canPoseQuestion() || !game.getCurrentPlayerLocation().isRoom()) {
+                move(game, player, bot);
+            }
+
+            if (game.canPoseQuestion()) {
+                Suggestion suggestion = bot.chooseSuggestion(game, player, game.getCurrentPlayerLocation().asRoom());
+                suggestions++;
+
+                Player responder = game.poseQuestion(suggestion);
+                if (responder != null) {
+                    Bot responderBot = bots[board.getSuspects().indexOf(responder.getCharacter())];
+                    Card response = responderBot.chooseResponse(game, responder, responder.matchingSuggestionCards(suggestion));
+                    game.questionResponse(response);
+                }
+            }
+
+            if (game.canMakeFinalAccusation()) {
+                Suggestion accusation = bot.chooseAccusation(game, player);
+                if (accusation != null) {
+                    if (game.makeFinalAccusation(accusation)) {
+                        winner = player;
+                        solved = true;
+                    } else {
+                        incorrectAccusations++;
+                    }
+                }
+            }
+        }
+
+        // The last player remaining after all others have been eliminated wins
+        if (game.isFinished() && winner == null) {
+            winner = game.getActivePlayers().get(0);
+        }
+
+        int winnerIndex = winner == null ? -1 : board.getSuspects().indexOf(winner.getCharacter());
+        statistics.recordGame(turns, suggestions, incorrectAccusations, winnerIndex, solved);
+    }
+
+    /**
+     * Performs the movement part of a turn.
+     */
+    private static void move(Game game, Player player, Bot bot) {
+        if (game.canUsePassage() && bot.usePassage(game, player)) {
+            game.usePassage();
+            return;
+        }
+
+        if (!game.canRollDice()) {
+            return;
+        }
+
+        game.rollDice(new int[Game.NUM_DICE]);
+
+        while (game.getTurnRemainingMoves() > 0) {
+            Location location = bot.chooseMove(game, player);
+            if (location == null) {
+                if (game.canStopMoving()) {
+                    game.stopMoving();
+                }
+                return;
+            }
+
+            game.moveTo(location);
+        }
+    }
+
+    /**
+     * Task playing a range of games, splitting it in halves until it is small enough.
+     */
+    private class SimulationTask extends RecursiveTask<Statistics> {
+        private final long mGames;
+        private final SplittableRandom mRandom;
+
+        private SimulationTask(long games, SplittableRandom random) {
+            mGames = games;
+            mRandom = random;
+        }
+
+        @Override
+        protected Statistics compute() {
+            if (mGames <= GAMES_PER_TASK) {
+                Statistics statistics = new Statistics();
+                for (long i = 0; i < mGames; i++) {
+                    playGame(mRandom, statistics);
+                }
+                return statistics;
+            }
+
+            SimulationTask left = new SimulationTask(mGames / 2, mRandom.split());
+            SimulationTask right = new SimulationTask(mGames - mGames / 2, mRandom.split());
+            left.fork();
+
+            return right.compute().merge(left.join());
+        }
+    }
+
+    /**
+     * Runs a simulation from the command line.
+     *
+     * Usage: {@code Simulation [games] [players] [maxTurns] [seed]}
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int maxTurns = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        Simulation simulation = new Simulation(players, maxTurns, KnowledgeBot::new);
+
+        long start = System.nanoTime();
+        Statistics statistics = simulation.run(games, seed);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.print(statistics);
+        System.out.printf("Played in %.2fs (%.0f games/minute)%n", elapsed / 1e9, games * 60e9 / elapsed);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.sim;
+
+import com.wolfetones.cluedo.config.Config;
+
+/**
+ * Aggregate statistics of simulated games.
+ *
+ * Each simulation task records games into its own {@code Statistics}, which are merged once the tasks complete,
+ * so no synchronization is needed while games are being played.
+ */
+public class Statistics {
+    /** Number of suspects, in board order */
+    private static final int SUSPECTS = Config.Cards.SUSPECTS.length;
+
+    private long mGames = 0;
+    private long mSolvedGames = 0;
+    private long mTurnLimitedGames = 0;
+
+    private long mTurns = 0;
+    private int mMaxTurns = 0;
+
+    private long mSuggestions = 0;
+    private long mIncorrectAccusations = 0;
+
+    /**
+     * Games played and won by each suspect, in board order.
+     */
+    private final long[] mSuspectGames = new long[SUSPECTS];
+    private final long[] mSuspectWins = new long[SUSPECTS];
+
+    /**
+     * Records the participation of a suspect in a game.
+     *
+     * @param suspect index of the suspect
+     */
+    void recordPlayer(int suspect) {
+        mSuspectGames[suspect]++;
+    }
+
+    /**
+     * Records a finished game.
+     *
+     * @param turns number of turns played
+     * @param suggestions number of questions posed
+     * @param incorrectAccusations number of incorrect final accusations made
+     * @param winner index of the winning suspect, or {@code -1} if the turn limit was reached
+     * @param solved whether the game was won by a correct accusation
+     */
+    void recordGame(int turns, int suggestions, int incorrectAccusations, int winner, boolean solved) {
+        mGames++;
+        mTurns += turns;
+        mMaxTurns = Math.max(mMaxTurns, turns);
+        mSuggestions += suggestions;
+        mIncorrectAccusations += incorrectAccusations;
+
+        if (winner < 0) {
+            mTurnLimitedGames++;
+        } else {
+            mSuspectWins[winner]++;
+        }
+
+        if (solved) {
+            mSolvedGames++;
+        }
+    }
+
+    /**
+     * Adds the statistics of other games to these statistics.
+     *
+     * @param other statistics of other games
+     * @return these statistics
+     */
+    Statistics merge(Statistics other) {
+        mGames += other.mGames;
+        mSolvedGames += other.mSolvedGames;
+        mTurnLimitedGames += other.mTurnLimitedGames;
+        mTurns += other.mTurns;
+        mMaxTurns = Math.max(mMaxTurns, other.mMaxTurns);
+        mSuggestions += other.mSuggestions;
+        mIncorrectAccusations += other.mIncorrectAccusations;
+
+        for (int i = 0; i < SUSPECTS; i++) {
+            mSuspectGames[i] += other.mSuspectGames[i];
+            mSuspectWins[i] += other.mSuspectWins[i];
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return the number of games played.
+     */
+    public long getGames() {
+        return mGames;
+    }
+
+    /**
+     * Returns the number of games won by a correct final accusation.
+     *
+     * @return the number of games won by a correct final accusation.
+     */
+    public long getSolvedGames() {
+        return mSolvedGames;
+    }
+
+    /**
+     * Returns the number of games stopped without a winner after reaching the turn limit.
+     *
+     * @return the number of games stopped at the turn limit.
+     */
+    public long getTurnLimitedGames() {
+        return mTurnLimitedGames;
+    }
+
+    /**
+     * Returns the average number of turns played per game.
+     *
+     * @return the average number of turns per game, or {@code 0} if no games were played.
+     */
+    public double getAverageTurns() {
+        return mGames == 0 ? 0 : (double) mTurns / mGames;
+    }
+
+    /**
+     * Returns the number of turns played in the longest game.
+     *
+     * @return the maximum number of turns of a game.
+     */
+    public int getMaxTurns() {
+        return mMaxTurns;
+    }
+
+    /**
+     * Returns the average number of questions posed per game.
+     *
+     * @return the average number of suggestions per game, or {@code 0} if no games were played.
+     */
+    public double getAverageSuggestions() {
+        return mGames == 0 ? 0 : (double) mSuggestions / mGames;
+    }
+
+    /**
+     * Returns the total number of incorrect final accusations made in all games.
+     *
+     * @return the number of incorrect final accusations.
+     */
+    public long getIncorrectAccusations() {
+        return mIncorrectAccusations;
+    }
+
+    /**
+     * Returns the fraction of games a suspect has won out of the games it took part in.
+     *
+     * @param suspect index of the suspect, in board order
+     * @return the win rate of the suspect
+     */
+    public double getWinRate(int suspect) {
+        return mSuspectGames[suspect] == 0 ? 0 : (double) mSuspectWins[suspect] / mSuspectGames[suspect];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(String.format("Games: %d (%d solved, %d reached turn limit)%n", mGames, mSolvedGames, mTurnLimitedGames));
+        result.append(String.format("Turns per game: %.2f average, %d maximum%n", getAverageTurns(), mMaxTurns));
+        result.append(String.format("Suggestions per game: %.2f%n", getAverageSuggestions()));
+        result.append(String.format("Incorrect accusations: %d%n", mIncorrectAccusations));
+        for (int i = 0; i < SUSPECTS; i++) {
+            if (mSuspectGames[i] == 0) continue;
+
+            result.append(String.format("%-16s %6.2f%% of %d games%n", Config.Cards.SUSPECTS[i].name, getWinRate(i) * 100, mSuspectGames[i]));
+        }
+
+        return result.toString();
+    }
+}
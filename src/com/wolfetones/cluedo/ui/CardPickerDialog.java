@@ -333,7 +333,7 @@ public class CardPickerDialog extends JDialog {
             private CardPickerCardComponent(T card, double relativeSize) {
                 mCard = card;
 
-                mFont = Config.FONT.deriveFont(Font.PLAIN, Config.screenRelativeSize(16));
+                mFont = Config.getFont().deriveFont(Font.PLAIN, Config.screenRelativeSize(16));
 
                 mImage = ImageUtils.getScaledImage(mCard.getCardImage(), (int) Config.screenRelativeSize(125.0 * relativeSize));
 
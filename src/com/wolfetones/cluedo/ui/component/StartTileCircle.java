@@ -40,7 +40,7 @@ public class StartTileCircle extends JComponent {
     private Color mColor;
 
     public StartTileCircle(StartTile startTile, int tileSize) {
-        mColor = startTile.getStartingSuspect().getColor().darker();
+        mColor = new Color(startTile.getStartingSuspect().getColor()).darker();
 
         int size = (int) (tileSize * SIZE_RELATIVE);
 
@@ -24,6 +24,7 @@
 
 package com.wolfetones.cluedo.ui.component;
 
+import com.wolfetones.cluedo.board.Path;
 import com.wolfetones.cluedo.board.tiles.Tile;
 import com.wolfetones.cluedo.util.ImageUtils;
 import com.wolfetones.cluedo.card.Token;
@@ -33,7 +34,6 @@ import com.wolfetones.cluedo.util.Util;
 import javax.swing.*;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
-import java.util.List;
 
 public class TokenComponent extends JComponent {
     public static final int ANIMATION_DURATION = 200;
@@ -63,13 +63,14 @@ public class TokenComponent extends JComponent {
         g.drawImage(mTokenImage, 0, 0, null);
     }
 
-    private void updateCoordinates(List<? extends Tile> path, int delay) {
+    private void updateCoordinates(Path path, int delay) {
         int finalX = (int) (mToken.getCoordinateX() * mTileSize);
         int finalY = (int) (mToken.getCoordinateY() * mTileSize);
 
         Animator.Animation animation = Animator.getInstance().animateAndInterruptAll(this);
         if (path != null) {
-            for (Tile tile : path) {
+            for (int i = 0; i < path.size(); i++) {
+                Tile tile = path.get(i);
                 int targetX = tile.getX() * mTileSize;
                 int targetY = tile.getY() * mTileSize;
 
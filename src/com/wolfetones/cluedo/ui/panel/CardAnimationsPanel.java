@@ -47,7 +47,7 @@ import java.util.stream.Collectors;
 public class CardAnimationsPanel extends JPanel {
     private static final double CARD_MARGIN = 0.9;
 
-    private static Random sRandom = new Random();
+    private Random mRandom = new Random();
 
     public CardAnimationsPanel() {
         super();
@@ -170,9 +170,9 @@ public class CardAnimationsPanel extends JPanel {
                 .await();
 
         // Select random suspect, weapon and room
-        AnimatableCard chosenSuspect = suspectCards.remove(sRandom.nextInt(suspectCards.size()));
-        AnimatableCard chosenWeapon = weaponCards.remove(sRandom.nextInt(weaponCards.size()));
-        AnimatableCard chosenRoom = roomCards.remove(sRandom.nextInt(roomCards.size()));
+        AnimatableCard chosenSuspect = suspectCards.remove(mRandom.nextInt(suspectCards.size()));
+        AnimatableCard chosenWeapon = weaponCards.remove(mRandom.nextInt(weaponCards.size()));
+        AnimatableCard chosenRoom = roomCards.remove(mRandom.nextInt(roomCards.size()));
         List<AnimatableCard> chosenCards = List.of(chosenSuspect, chosenWeapon, chosenRoom);
 
         // Add secret folder component
@@ -239,7 +239,7 @@ public class CardAnimationsPanel extends JPanel {
         // Randomly distribute cards from stacks to all cards stack, maintaining order within stack
         List<AnimatableCard> allCards = new ArrayList<>();
         while (!suspectCards.isEmpty() || !weaponCards.isEmpty() || !roomCards.isEmpty()) {
-            List<AnimatableCard> list = allCardLists.get(sRandom.nextInt(3));
+            List<AnimatableCard> list = allCardLists.get(mRandom.nextInt(3));
             if (list.isEmpty()) {
                 continue;
             }
@@ -583,7 +583,7 @@ public class CardAnimationsPanel extends JPanel {
             mName = card.getName();
 
             mImage = ImageUtils.getScaledImage(card.getCardImage(), imageWidth);
-            setFont(Config.FONT.deriveFont(Font.PLAIN, Config.screenRelativeSize(20)));
+            setFont(Config.getFont().deriveFont(Font.PLAIN, Config.screenRelativeSize(20)));
 
             mBackImage = ImageUtils.getScaledImage(Card.getCardBackImage(), imageWidth);
 
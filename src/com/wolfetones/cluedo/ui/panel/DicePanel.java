@@ -42,6 +42,7 @@ import com.wolfetones.physics.geometry.Plane;
 import javax.swing.*;
 import javax.vecmath.*;
 import java.awt.*;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -53,6 +54,8 @@ import java.util.stream.IntStream;
  */
 public class DicePanel extends JPanel implements Animator.Fadable {
     private static final int FRAMES_PER_SECOND = 60;
+    /** Number of physics updates after which thrown dice have settled */
+    private static final int SETTLE_UPDATES = FRAMES_PER_SECOND * 10;
     private static final int NUM_DICE = Game.NUM_DICE;
 
     private static final double GRAVITY = 0.5;
@@ -110,13 +113,40 @@ public class DicePanel extends JPanel implements Animator.Fadable {
         }
     }
 
+    /**
+     * Throws the dice and waits until they come to a stop.
+     *
+     * If {@code diceValues} holds non-zero values, the dice are made to land on those values, so that the values
+     * can come from the game's random number generator. Otherwise the values the dice land on are written to
+     * {@code diceValues}, if it is not {@code null}.
+     *
+     * @param diceValues the values to land on, or an array to store the values landed on, or {@code null}
+     * @param waitForAnimation whether to wait until the dice have been shown and faded out
+     * @return the total value of the dice
+     */
     public int rollDice(int[] diceValues, boolean waitForAnimation) {
         // Reset status
         mForceFinish = false;
         mAlpha = 0;
         mTotalTextAlpha = 0;
 
-        throwDice();
+        Matrix3d[] rotations = new Matrix3d[NUM_DICE * 2];
+        Vector3d[] translations = new Vector3d[NUM_DICE];
+        randomThrow(rotations, translations);
+
+        boolean presetValues = diceValues != null && Arrays.stream(diceValues).allMatch(v -> v != 0);
+        if (presetValues) {
+            // Simulate the throw to find the faces the dice land on, and relabel them to show the preset values
+            throwDice(rotations, translations);
+            for (int i = 0; i < SETTLE_UPDATES; i++) {
+                mPhysics.update();
+            }
+            for (int i = 0; i < NUM_DICE; i++) {
+                mDices[i].setFaceValue(mDices[i].getHighestZFace(), diceValues[i]);
+            }
+        }
+
+        throwDice(rotations, translations);
 
         // Physics update task
         TimerTask physicsTick = new TimerTask() {
@@ -173,11 +203,15 @@ public class DicePanel extends JPanel implements Animator.Fadable {
         // Return values
         mTotalValue = 0;
         for (int i = 0; i < NUM_DICE; i++) {
-            int value = mDices[i].getValue();
-            if (diceValues != null) {
-                diceValues[i] = value;
+            if (presetValues) {
+                // Dice may still be moving if they timed out
+                if (mDices[i].getValue() != diceValues[i]) {
+                    mDices[i].setFaceValue(mDices[i].getHighestZFace(), diceValues[i]);
+                }
+            } else if (diceValues != null) {
+                diceValues[i] = mDices[i].getValue();
             }
-            mTotalValue += value;
+            mTotalValue += mDices[i].getValue();
         }
 
         // Don't wait for animation if force finished
@@ -243,19 +277,20 @@ public class DicePanel extends JPanel implements Animator.Fadable {
         return mTotalValue;
     }
 
-    private void throwDice() {
+    /**
+     * Chooses random rotations and forces to throw the dice with.
+     *
+     * @param rotations array to store the rotation without and with velocity of each dice
+     * @param translations array to store the force applied to each dice
+     */
+    private void randomThrow(Matrix3d[] rotations, Vector3d[] translations) {
         // Translation of previous dice
         Vector3d previousTranslate = null;
         Vector3d previousTranslateDistance = new Vector3d();
-        for (Dice dice : mDices) {
-            // Reset dice position
-            dice.reset();
-
-            // Rotate by random amount without velocity
-            dice.transform(randomRotationMatrix(), true);
-
-            // Rotate by random amount with velocity
-            dice.transform(randomRotationMatrix());
+        for (int i = 0; i < NUM_DICE; i++) {
+            // Rotate by random amount without velocity, then with velocity
+            rotations[i * 2] = randomRotationMatrix();
+            rotations[i * 2 + 1] = randomRotationMatrix();
 
             // Apply force in random direction, ensuring sufficient distance between translate vectors of the two dice
             Vector3d translate;
@@ -273,8 +308,27 @@ public class DicePanel extends JPanel implements Animator.Fadable {
             // Store translation for angle calculations
             previousTranslate = translate;
 
+            translations[i] = translate;
+        }
+    }
+
+    /**
+     * Resets the dice and throws them, see {@link DicePanel#randomThrow(Matrix3d[], Vector3d[])}.
+     *
+     * Throwing the dice the same way always lands them on the same faces.
+     */
+    private void throwDice(Matrix3d[] rotations, Vector3d[] translations) {
+        for (int i = 0; i < NUM_DICE; i++) {
+            Dice dice = mDices[i];
+
+            // Reset dice position
+            dice.reset();
+
+            dice.transform(rotations[i * 2], true);
+            dice.transform(rotations[i * 2 + 1]);
+
             // Apply force
-            dice.translate(translate);
+            dice.translate(translations[i]);
         }
     }
 
@@ -330,7 +384,7 @@ public class DicePanel extends JPanel implements Animator.Fadable {
         mForceFinish = true;
 
         mTimer.cancel();
-        for (int i = 0; i < FRAMES_PER_SECOND * 10; i++) {
+        for (int i = 0; i < SETTLE_UPDATES; i++) {
             mPhysics.update();
         }
 
@@ -33,15 +33,14 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.io.InputStream;
-import java.nio.BufferOverflowException;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * User text input panel.
  */
 public class InputPanel extends JTextField implements KeyListener {
-    private PanelInputStream mInputStream = new PanelInputStream();
+    private Consumer<String> mCommandListener;
 
     private String mUnhintedText;
     private List<String> mCommandHints;
@@ -79,7 +78,7 @@ public class InputPanel extends JTextField implements KeyListener {
     }
 
     /**
-     * Prints and injects the specified text into the input stream.
+     * Prints and injects the specified text as a command.
      *
      * @see InputPanel#inject(String)
      *
@@ -91,23 +90,25 @@ public class InputPanel extends JTextField implements KeyListener {
     }
 
     /**
-     * Injects the specified text into the input stream.
+     * Injects the specified text as a command, without printing it.
      *
      * To exit {@link com.wolfetones.cluedo.GameController#readCommand(String, String...)}, "\3" can be injected.
      *
      * @param text the text to inject
      */
     public void inject(String text) {
-        mInputStream.append(text + "\n");
+        if (mCommandListener != null) {
+            mCommandListener.accept(text);
+        }
     }
 
     /**
-     * Gets the input stream for this input panel.
+     * Sets the listener that receives commands submitted by the user or injected.
      *
-     * @return the input stream for this input panel
+     * @param listener the command listener
      */
-    public InputStream getInputStream() {
-        return mInputStream;
+    public void setCommandListener(Consumer<String> listener) {
+        mCommandListener = listener;
     }
 
     /**
@@ -165,8 +166,8 @@ public class InputPanel extends JTextField implements KeyListener {
 
         // Submit command on enter
         if (e.getKeyCode() == KeyEvent.VK_ENTER) {
-            mInputStream.append(getText() + "\n");
             System.out.println("> " + getText());
+            inject(getText());
 
             clear();
 
@@ -174,82 +175,4 @@ public class InputPanel extends JTextField implements KeyListener {
             e.consume();
         }
     }
-
-    /**
-     * Buffered input stream that allows text to be appended.
-     */
-    private class PanelInputStream extends InputStream {
-        private static final int BUFFER_SIZE = 512;
-
-        private byte[] mBuffer = new byte[BUFFER_SIZE];
-        private int mHead = 0;
-        private int mTail = 0;
-        private int mCount = 0;
-
-        @Override
-        public synchronized int read() {
-            while (mCount <= 0) {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    return -1;
-                }
-            }
-
-            byte r = mBuffer[mHead];
-            mHead++;
-            mHead %= BUFFER_SIZE;
-
-            mCount--;
-
-            return r & 0xff;
-        }
-
-        @Override
-        public synchronized int read(byte[] b, int off, int len) {
-            while (mCount <= 0) {
-                try {
-                    wait();
-                } catch (InterruptedException e) {
-                    return -1;
-                }
-            }
-
-            int i;
-            for (i = 0; i < len && mCount > 0; i++) {
-                b[off + i] = mBuffer[mHead];
-                mHead++;
-                mHead %= BUFFER_SIZE;
-
-                mCount--;
-            }
-
-            return i;
-        }
-
-        @Override
-        public int available() {
-            return mCount;
-        }
-
-        private synchronized void append(String text) {
-            char[] chars = text.toCharArray();
-
-            // Check if there is enough space in the buffer
-            if (mCount + chars.length > BUFFER_SIZE) {
-                throw new BufferOverflowException();
-            }
-
-            // Copy characters to buffer
-            for (char c : chars) {
-                mBuffer[mTail] = (byte) c;
-                mTail++;
-                mTail %= BUFFER_SIZE;
-            }
-
-            mCount += chars.length;
-
-            notifyAll();
-        }
-    }
-}
\ No newline at end of file
+}
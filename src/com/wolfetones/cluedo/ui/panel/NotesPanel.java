@@ -30,6 +30,8 @@ import com.wolfetones.cluedo.config.Config;
 import com.wolfetones.cluedo.game.Knowledge;
 import com.wolfetones.cluedo.game.Player;
 import com.wolfetones.cluedo.game.PlayerList;
+import com.wolfetones.cluedo.game.Probabilities;
+import com.wolfetones.cluedo.game.ProbabilityEngine;
 import com.wolfetones.cluedo.util.ImageUtils;
 import com.wolfetones.cluedo.util.Util;
 
@@ -42,6 +44,7 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class NotesPanel extends JPanel {
     private PlayerList mPlayers;
@@ -49,6 +52,12 @@ public class NotesPanel extends JPanel {
 
     private Knowledge mKnowledge;
 
+    private final ProbabilityEngine mProbabilityEngine = new ProbabilityEngine();
+    /** Probabilities for the current knowledge, or {@code null} while they are being computed */
+    private Probabilities mProbabilities;
+    /** Number of computations started, results of earlier computations are discarded */
+    private volatile int mProbabilityGeneration = 0;
+
     private List<PlayerToken> mPlayerTokens = new ArrayList<>();
     private Map<Card, CardLabel> mCardLabels = new HashMap<>();
     private Map<Card, List<CheckBox>> mCheckBoxes = new HashMap<>();
@@ -81,6 +90,8 @@ public class NotesPanel extends JPanel {
 
     public void setCurrentPlayer(Player player) {
         mKnowledge = player.getKnowledge();
+        mProbabilities = null;
+        updateProbabilities();
 
         for (int i = 0; i < mPlayerTokens.size(); i++) {
             int playerIndex = i % (mPlayers.size() - 1);
@@ -98,9 +109,46 @@ public class NotesPanel extends JPanel {
     }
 
     public void update() {
+        updateProbabilities();
+
         updateCards(mCards);
     }
 
+    /**
+     * Computes the probabilities for the current knowledge in the background, as late in the game this can take
+     * long enough to stall the UI, and updates the cards once they are ready.
+     */
+    private void updateProbabilities() {
+        int generation = ++mProbabilityGeneration;
+        // Take a snapshot, as the knowledge may be modified while the probabilities are being computed
+        Knowledge knowledge = new Knowledge(mKnowledge);
+
+        new SwingWorker<Probabilities, Void>() {
+            @Override
+            protected Probabilities doInBackground() {
+                synchronized (mProbabilityEngine) {
+                    return mProbabilityEngine.compute(knowledge);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (generation != mProbabilityGeneration) {
+                    return;
+                }
+
+                try {
+                    mProbabilities = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    // Leave the probabilities unavailable
+                    return;
+                }
+
+                updateCards(mCards);
+            }
+        }.execute();
+    }
+
     public void updateCards(List<Card> cards) {
         cards.forEach(this::updateCard);
     }
@@ -175,7 +223,7 @@ public class NotesPanel extends JPanel {
         }
 
         private void setPlayer(Player player) {
-            mColor = player.getCharacter().getColor();
+            mColor = new Color(player.getCharacter().getColor());
         }
 
         @Override
@@ -243,6 +291,12 @@ public class NotesPanel extends JPanel {
                     .map(Knowledge.Status::getValue)
                     .allMatch(Knowledge.Value.NotHolding::equals);
 
+            if (mProbabilities == null) {
+                setToolTipText(null);
+            } else {
+                setToolTipText(String.format("%.0f%% chance of being in the envelope", mProbabilities.getSolutionProbability(mCard) * 100));
+            }
+
             repaint();
         }
 
@@ -306,6 +360,12 @@ public class NotesPanel extends JPanel {
             setCursor(Cursor.getPredefinedCursor(popupEnabled ? Cursor.DEFAULT_CURSOR : Cursor.HAND_CURSOR));
             setBorder(mStatus.isFixed() ? CHECKBOX_FIXED_BORDER : CHECKBOX_DEFAULT_BORDER);
 
+            if (popupEnabled || mProbabilities == null) {
+                setToolTipText(null);
+            } else {
+                setToolTipText(String.format("%.0f%% chance of holding", mProbabilities.getHoldingProbability(mCard, mPlayer) * 100));
+            }
+
             repaint();
         }
 
@@ -84,7 +84,7 @@ public class SlideOutCardsPanel extends SlideOutPanel {
 
             JLabel label = new JLabel(card.getName());
             label.setForeground(Color.BLACK);
-            label.setFont(Config.FONT.deriveFont(Font.PLAIN, Config.screenRelativeSize(fontSize)));
+            label.setFont(Config.getFont().deriveFont(Font.PLAIN, Config.screenRelativeSize(fontSize)));
 
             add(image, imageConstraints);
             add(label, textConstraints);
@@ -33,14 +33,14 @@ import java.awt.image.BufferedImage;
 import java.awt.image.ColorConvertOp;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for loading and caching images.
  */
 public class ImageUtils {
-    private static Map<String, SoftReference<BufferedImage>> sCache = new HashMap<>();
+    private static Map<String, SoftReference<BufferedImage>> sCache = new ConcurrentHashMap<>();
 
     private static String getCacheName(BufferedImage image) {
         for (Map.Entry<String, SoftReference<BufferedImage>> entry : sCache.entrySet()) {
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018
+ *
+ * The Wolfe Tones
+ * -------------------
+ * Nebojsa Cvetkovic - 16376551
+ * Hugh Ormond - 16312941
+ *
+ * This file is a part of Cluedo
+ *
+ * Cluedo is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Cluedo is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Cluedo.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.wolfetones.cluedo.util;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Helpers for drawing from a game's {@link SplittableRandom}.
+ */
+public class RandomUtils {
+    /**
+     * Shuffles a list in place using the Fisher-Yates algorithm.
+     *
+     * Unlike {@link java.util.Collections#shuffle(List)}, the order only depends on the state of {@code random}, so
+     * a game can be replayed from its seed.
+     *
+     * @param list the list to shuffle
+     * @param random source of randomness
+     */
+    public static <T> void shuffle(List<T> list, SplittableRandom random) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+
+    /**
+     * Returns a random element of a list.
+     *
+     * @param list the list to choose from
+     * @param random source of randomness
+     * @return a random element of {@code list}
+     */
+    public static <T> T choose(List<T> list, SplittableRandom random) {
+        return list.get(random.nextInt(list.size()));
+    }
+}
@@ -42,6 +42,11 @@ public class Dice extends Cube {
      */
     public static final int[] FACE_VALUES = {1, 6, 3, 4, 2, 5};
 
+    /**
+     * Number of dots on each face of this dice, opposite faces adding up to 7.
+     */
+    private int[] faceValues = FACE_VALUES.clone();
+
     private Color faceColor = Color.WHITE;
     private Color borderColor = Color.BLACK;
     private Color dotColor = Color.BLACK;
@@ -106,7 +111,38 @@ public class Dice extends Cube {
      * @return the value of the highest face.
      */
     public int getValue() {
-        return FACE_VALUES[getHighestZFace()];
+        return faceValues[getHighestZFace()];
+    }
+
+    /**
+     * Relabels the faces of the dice so the specified face shows the specified value.
+     *
+     * Opposite faces keep adding up to 7.
+     *
+     * @param face the index of the face
+     * @param value the value the face should show
+     */
+    public void setFaceValue(int face, int value) {
+        int other = 0;
+        while (faceValues[other] != value) {
+            other++;
+        }
+
+        if (other == face) {
+            return;
+        }
+
+        // Opposite faces are adjacent in the face order
+        swapFaceValues(face, other);
+        if (other != (face ^ 1)) {
+            swapFaceValues(face ^ 1, other ^ 1);
+        }
+    }
+
+    private void swapFaceValues(int a, int b) {
+        int value = faceValues[a];
+        faceValues[a] = faceValues[b];
+        faceValues[b] = value;
     }
 
     /**
@@ -158,7 +194,7 @@ public class Dice extends Cube {
             dotHeightRadius.scale(0.125, height);
 
             // Draw the number of dots required for this face
-            int value = FACE_VALUES[f];
+            int value = faceValues[f];
             for (int d = 0; d < value; d++) {
                 polygon.reset();
 